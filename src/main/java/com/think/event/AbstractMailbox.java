@@ -0,0 +1,64 @@
+package com.think.event;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Queue of subscriber deliveries that schedules itself on an executor whenever it holds deliveries and is not already
+ * scheduled, so that at most one pool thread drains it at a time.
+ *
+ * @author veione
+ */
+abstract class AbstractMailbox implements Runnable {
+    /**
+     * Maximum number of deliveries executed before the mailbox gives its pool thread back to other tasks.
+     */
+    static final int THROUGHPUT = 64;
+
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    AbstractMailbox(Executor executor) {
+        this.executor = requireNonNull(executor);
+    }
+
+    @Override
+    public final void run() {
+        try {
+            for (int i = 0; i < THROUGHPUT; i++) {
+                if (!deliverNext()) {
+                    break;
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (hasPending()) {
+                // deliveries arrived meanwhile or the throughput limit was hit
+                schedule();
+            }
+        }
+    }
+
+    final void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Executes the next pending delivery, only called by the draining thread.
+     *
+     * @return {@code false} if there was none
+     */
+    abstract boolean deliverNext();
+
+    abstract boolean hasPending();
+}
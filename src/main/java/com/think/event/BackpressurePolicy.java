@@ -0,0 +1,28 @@
+package com.think.event;
+
+/**
+ * What happens when an event is posted to a subscriber whose own queue is full, see
+ * {@link com.think.event.annotation.Subscribe#queueCapacity()}. Events that are not delivered are counted, see
+ * {@link EventBus#droppedEvents(Object)}.
+ *
+ * @author veione
+ */
+public enum BackpressurePolicy {
+    /**
+     * The posting thread waits for free space up to {@link com.think.event.annotation.Subscribe#blockTimeoutMillis()},
+     * then the event is dropped and reported to the exception handler.
+     */
+    BLOCK,
+    /**
+     * The posted event is dropped.
+     */
+    DROP_NEWEST,
+    /**
+     * The oldest queued event is dropped to make room for the posted one.
+     */
+    DROP_OLDEST,
+    /**
+     * The posted event is dropped and reported to the exception handler right away, without waiting.
+     */
+    FAIL
+}
@@ -0,0 +1,95 @@
+package com.think.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue of a subscriber that receives its events as a {@code List}. Events are accumulated into a batch which is closed
+ * as soon as it holds {@link SubscriberMethod#maxBatchSize()} events or its first event has waited
+ * {@link SubscriberMethod#maxLatencyMillis()}, whichever comes first. Closed batches are delivered one after another in
+ * the order they were closed.
+ *
+ * @author veione
+ */
+final class BatchingSubscriberQueue extends SubscriberQueue {
+    private final Subscriber subscriber;
+    private final ScheduledExecutorService scheduler;
+    private final int maxBatchSize;
+    private final long maxLatencyMillis;
+    private final Queue<List<Object>> closedBatches = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Batch being accumulated and the flush scheduled for it, guarded by {@code this}.
+     */
+    private List<Object> openBatch;
+    private ScheduledFuture<?> scheduledFlush;
+
+    BatchingSubscriberQueue(Subscriber subscriber, Executor executor, ScheduledExecutorService scheduler,
+                            int maxBatchSize, long maxLatencyMillis) {
+        super(executor);
+        this.subscriber = subscriber;
+        this.scheduler = scheduler;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    @Override
+    void offer(Object event) {
+        synchronized (this) {
+            if (openBatch == null) {
+                openBatch = new ArrayList<>(Math.min(maxBatchSize, 1024));
+                List<Object> batch = openBatch;
+                scheduledFlush = scheduler.schedule(() -> flush(batch), maxLatencyMillis, TimeUnit.MILLISECONDS);
+            }
+            openBatch.add(event);
+            if (openBatch.size() < maxBatchSize) {
+                return;
+            }
+            scheduledFlush.cancel(false);
+            close();
+        }
+        schedule();
+    }
+
+    /**
+     * Closes the given batch if it is still open, called once its latency limit has expired.
+     */
+    private void flush(List<Object> batch) {
+        synchronized (this) {
+            if (openBatch != batch) {
+                // already closed because it was full
+                return;
+            }
+            close();
+        }
+        schedule();
+    }
+
+    // Must be called in synchronized block
+    private void close() {
+        closedBatches.offer(openBatch);
+        openBatch = null;
+        scheduledFlush = null;
+    }
+
+    @Override
+    boolean deliverNext() {
+        List<Object> batch = closedBatches.poll();
+        if (batch == null) {
+            return false;
+        }
+        subscriber.invokeSubscriber(batch);
+        return true;
+    }
+
+    @Override
+    boolean hasPending() {
+        return !closedBatches.isEmpty();
+    }
+}
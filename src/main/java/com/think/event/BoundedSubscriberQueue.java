@@ -0,0 +1,92 @@
+package com.think.event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded queue of a single subscriber, drained by at most one pool thread at a time. A slow subscriber therefore only
+ * fills its own queue, and what happens to further events is decided by its {@link BackpressurePolicy} instead of
+ * stalling the shared executor and with it every other subscriber.
+ *
+ * @author veione
+ */
+final class BoundedSubscriberQueue extends SubscriberQueue {
+    private final Subscriber subscriber;
+    private final ArrayBlockingQueue<Object> queue;
+    private final int capacity;
+    private final BackpressurePolicy policy;
+    private final long blockTimeoutMillis;
+    private final LongAdder dropped = new LongAdder();
+
+    BoundedSubscriberQueue(Subscriber subscriber, Executor executor, int capacity, BackpressurePolicy policy,
+                           long blockTimeoutMillis) {
+        super(executor);
+        this.subscriber = subscriber;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.policy = policy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+    }
+
+    /**
+     * Queues the event for delivery, applying the backpressure policy if the queue is full.
+     */
+    @Override
+    void offer(Object event) {
+        boolean queued = switch (policy) {
+            case BLOCK -> offerBlocking(event);
+            case DROP_NEWEST, FAIL -> queue.offer(event);
+            case DROP_OLDEST -> offerDroppingOldest(event);
+        };
+        if (queued) {
+            schedule();
+        } else {
+            dropped.increment();
+            if (policy != BackpressurePolicy.DROP_NEWEST) {
+                subscriber.handleRejected(event, new RejectedExecutionException(
+                        "Subscriber queue of " + capacity + " events is full, policy " + policy));
+            }
+        }
+    }
+
+    private boolean offerBlocking(Object event) {
+        try {
+            return queue.offer(event, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean offerDroppingOldest(Object event) {
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    boolean deliverNext() {
+        Object event = queue.poll();
+        if (event == null) {
+            return false;
+        }
+        subscriber.invokeSubscriber(event);
+        return true;
+    }
+
+    @Override
+    boolean hasPending() {
+        return !queue.isEmpty();
+    }
+}
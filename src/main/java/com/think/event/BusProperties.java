@@ -0,0 +1,102 @@
+package com.think.event;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a single {@link EventBus}, those of the default bus are bound at the top level of
+ * {@link EventBusProperties}, those of named buses under {@code com.think.eventbus.buses.<name>}.
+ *
+ * @author veione
+ */
+public class BusProperties {
+
+    /**
+     * Whether subscribers to super classes and interfaces of an event also receive it.
+     */
+    private boolean eventInheritance = true;
+
+    /**
+     * Number of lanes that deliveries of subscribers with an order key are striped over.
+     */
+    private int orderedLanes = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Whether all ASYNC subscribers of an event are invoked by a single executor task instead of one task each.
+     */
+    private boolean fuseAsyncSubscribers = false;
+
+    /**
+     * Number of calls through a method handle after which the invoker class of a subscriber method is generated, 0
+     * generates it on registration.
+     */
+    private int invokerCompileThreshold = 0;
+
+    /**
+     * Number of posts of an event class, since its subscribers last changed, after which a class calling them directly
+     * is generated, 0 never generates one.
+     */
+    private int dispatchCompileThreshold = 0;
+
+    private final EventBusProperties.DispatcherProperties dispatcher = new EventBusProperties.DispatcherProperties();
+
+    private final EventBusProperties.StickyProperties sticky = new EventBusProperties.StickyProperties();
+
+    /**
+     * Thread pools created and owned by the starter, by name. The pool named "default" replaces the executor of
+     * asynchronous subscribers, the others are used by {@code @Subscribe(threadMode = CUSTOM, threadPoolName = ...)}.
+     */
+    private final Map<String, EventBusProperties.ExecutorProperties> executors = new LinkedHashMap<>();
+
+    public boolean isEventInheritance() {
+        return eventInheritance;
+    }
+
+    public void setEventInheritance(boolean eventInheritance) {
+        this.eventInheritance = eventInheritance;
+    }
+
+    public int getOrderedLanes() {
+        return orderedLanes;
+    }
+
+    public void setOrderedLanes(int orderedLanes) {
+        this.orderedLanes = orderedLanes;
+    }
+
+    public int getInvokerCompileThreshold() {
+        return invokerCompileThreshold;
+    }
+
+    public void setInvokerCompileThreshold(int invokerCompileThreshold) {
+        this.invokerCompileThreshold = invokerCompileThreshold;
+    }
+
+    public int getDispatchCompileThreshold() {
+        return dispatchCompileThreshold;
+    }
+
+    public void setDispatchCompileThreshold(int dispatchCompileThreshold) {
+        this.dispatchCompileThreshold = dispatchCompileThreshold;
+    }
+
+    public boolean isFuseAsyncSubscribers() {
+        return fuseAsyncSubscribers;
+    }
+
+    public void setFuseAsyncSubscribers(boolean fuseAsyncSubscribers) {
+        this.fuseAsyncSubscribers = fuseAsyncSubscribers;
+    }
+
+    public EventBusProperties.DispatcherProperties getDispatcher() {
+        return dispatcher;
+    }
+
+    public EventBusProperties.StickyProperties getSticky() {
+        return sticky;
+    }
+
+    public Map<String, EventBusProperties.ExecutorProperties> getExecutors() {
+        return executors;
+    }
+}
@@ -0,0 +1,71 @@
+package com.think.event;
+
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.think.event.util.AsmUtils.toInternalName;
+
+/**
+ * Defines classes generated at runtime next to the class they serve, so that they are unloaded together with it.
+ * <p>
+ * A class is defined as a hidden class in the package of its host when the host can be looked up with full
+ * privileges. Otherwise it is defined by a {@link SubscriberClassLoader} child of the host's class loader, which is
+ * held by the host as well, or child of this library's loader when the host's loader cannot see this library, e.g. for
+ * JDK classes.
+ *
+ * @author veione
+ */
+final class ClassDefiner {
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+    private static final ClassValue<HostLoader> HOST_LOADERS = new ClassValue<>() {
+        @Override
+        protected HostLoader computeValue(Class<?> host) {
+            ClassLoader loader = host.getClassLoader();
+            if (loader != null && ClassUtils.isVisible(ClassDefiner.class, loader)) {
+                return new HostLoader(new SubscriberClassLoader(loader), toInternalName(host.getName()));
+            }
+            // a class loader cannot define classes in the JDK's packages, so these go to this library's package
+            String prefix = toInternalName(ClassDefiner.class.getPackageName()) + "/" + host.getName().replace('.', '_');
+            return new HostLoader(new SubscriberClassLoader(ClassDefiner.class.getClassLoader()), prefix);
+        }
+    };
+
+    private ClassDefiner() {
+    }
+
+    /**
+     * Defines the class {@code generator} generates next to {@code host}.
+     *
+     * @param host      the class the generated class belongs to
+     * @param suffix    appended to the host's name to name the generated class
+     * @param generator generates the class file for the internal class name it is given
+     */
+    static Class<?> define(Class<?> host, String suffix, Function<String, byte[]> generator)
+            throws IllegalAccessException {
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(host, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            lookup = null;
+        }
+        if (lookup != null && lookup.hasFullPrivilegeAccess()) {
+            // the JVM appends a unique suffix to the name of a hidden class
+            String className = toInternalName(host.getName()) + "$$" + suffix;
+            return lookup.defineHiddenClass(generator.apply(className), true).lookupClass();
+        }
+        HostLoader hostLoader = HOST_LOADERS.get(host);
+        String className = String.format("%s$$%s%d", hostLoader.classNamePrefix(), suffix,
+                CLASS_COUNTER.incrementAndGet());
+        return hostLoader.loader().defineClass(className.replace('/', '.'), generator.apply(className));
+    }
+
+    /**
+     * The loader defining the classes of a host that cannot be looked up, and the name prefix of these classes.
+     */
+    private record HostLoader(SubscriberClassLoader loader, String classNamePrefix) {
+    }
+}
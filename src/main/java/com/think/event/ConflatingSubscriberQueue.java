@@ -0,0 +1,79 @@
+package com.think.event;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latest-value-wins queue of a single subscriber. It holds at most one pending event per conflation key: an event whose
+ * key is already pending replaces the pending event in place and keeps its position, so a subscriber that falls behind
+ * only receives the newest event of each key and the queue never holds more events than there are distinct keys.
+ *
+ * @author veione
+ */
+final class ConflatingSubscriberQueue extends SubscriberQueue {
+    /**
+     * Stands in for a {@code null} key, which the concurrent map does not allow.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private final Subscriber subscriber;
+    private final EventKeyExtractor keyExtractor;
+    private final Map<Object, Object> pendingByKey = new ConcurrentHashMap<>();
+    private final Queue<Object> pendingKeys = new ConcurrentLinkedQueue<>();
+    private final LongAdder conflated = new LongAdder();
+
+    ConflatingSubscriberQueue(Subscriber subscriber, Executor executor, EventKeyExtractor keyExtractor) {
+        super(executor);
+        this.subscriber = subscriber;
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Queues the event under its conflation key, an event whose key accessor throws is reported and not queued.
+     */
+    @Override
+    void offer(Object event) {
+        Object key = subscriber.extractKey(keyExtractor, event);
+        if (key == Subscriber.NO_KEY) {
+            return;
+        }
+        if (key == null) {
+            key = NULL_KEY;
+        }
+        if (pendingByKey.put(key, event) == null) {
+            pendingKeys.offer(key);
+        } else {
+            conflated.increment();
+        }
+        schedule();
+    }
+
+    /**
+     * Replaced events are not delivered, so they count as dropped.
+     */
+    @Override
+    long droppedCount() {
+        return conflated.sum();
+    }
+
+    @Override
+    boolean deliverNext() {
+        Object key = pendingKeys.poll();
+        if (key == null) {
+            return false;
+        }
+        // the key leaves the queue before its event, so a newer event either replaces this one or queues the key again
+        Object event = pendingByKey.remove(key);
+        subscriber.invokeSubscriber(event);
+        return true;
+    }
+
+    @Override
+    boolean hasPending() {
+        return !pendingKeys.isEmpty();
+    }
+}
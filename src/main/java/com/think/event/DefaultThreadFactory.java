@@ -9,9 +9,21 @@ class DefaultThreadFactory implements ThreadFactory {
     private final AtomicInteger threadNumber = new AtomicInteger(1);
     private final String namePrefix;
     private final String poolPrefix;
+    private final boolean daemon;
+    private final int priority;
 
     DefaultThreadFactory(String poolPrefix) {
+        this(poolPrefix, false);
+    }
+
+    DefaultThreadFactory(String poolPrefix, boolean daemon) {
+        this(poolPrefix, daemon, Thread.NORM_PRIORITY);
+    }
+
+    DefaultThreadFactory(String poolPrefix, boolean daemon, int priority) {
         this.poolPrefix = poolPrefix;
+        this.daemon = daemon;
+        this.priority = priority;
         group = Thread.currentThread().getThreadGroup();
         namePrefix = poolPrefix + "-pool-" + poolNumber.getAndIncrement() + "-thread-";
     }
@@ -19,11 +31,11 @@ class DefaultThreadFactory implements ThreadFactory {
     @Override
     public Thread newThread(Runnable task) {
         Thread t = new Thread(group, task, namePrefix + threadNumber.getAndIncrement(), 0);
-        if (t.isDaemon()) {
-            t.setDaemon(false);
+        if (t.isDaemon() != daemon) {
+            t.setDaemon(daemon);
         }
-        if (t.getPriority() != Thread.NORM_PRIORITY) {
-            t.setPriority(Thread.NORM_PRIORITY);
+        if (t.getPriority() != priority) {
+            t.setPriority(priority);
         }
         return t;
     }
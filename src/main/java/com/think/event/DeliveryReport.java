@@ -0,0 +1,61 @@
+package com.think.event;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of an event posted with {@link EventBus#postAsync(Object)}, one {@link Delivery} per matched subscriber
+ * method in priority order.
+ *
+ * @param event      the posted event
+ * @param deliveries the deliveries to the subscriber methods, empty if the event had no subscribers
+ * @author veione
+ */
+public record DeliveryReport(Object event, List<Delivery> deliveries) {
+
+    /**
+     * Returns whether every subscriber method was invoked without throwing, skipping those whose condition filtered
+     * the event out.
+     */
+    public boolean successful() {
+        for (Delivery delivery : deliveries) {
+            if (delivery.outcome() != Outcome.SUCCESS && delivery.outcome() != Outcome.FILTERED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public enum Outcome {
+        /**
+         * The subscriber method returned normally.
+         */
+        SUCCESS,
+        /**
+         * The subscriber method threw, or the delivery could not be scheduled.
+         */
+        FAILURE,
+        /**
+         * The event was handed to the subscriber's own queue, whose deliveries may be dropped, conflated or batched
+         * and are therefore not tracked.
+         */
+        QUEUED,
+        /**
+         * The subscriber method's condition rejected the event, so it was not invoked.
+         */
+        FILTERED
+    }
+
+    /**
+     * Delivery of the event to a single subscriber method.
+     *
+     * @param subscriber the object with the subscriber method
+     * @param method     the subscriber method
+     * @param outcome    how the delivery ended
+     * @param failure    what the subscriber method threw, {@code null} unless the outcome is {@link Outcome#FAILURE}
+     * @param elapsed    how long the subscriber method ran, {@link Duration#ZERO} if it was not invoked
+     */
+    public record Delivery(Object subscriber, Method method, Outcome outcome, Throwable failure, Duration elapsed) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.think.event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Collects the deliveries of an event posted with {@link EventBus#postAsync(Object)} and completes the report future
+ * on the thread that finishes the last delivery, so nobody waits for the others.
+ *
+ * @author veione
+ */
+final class DeliveryTracker {
+    private final Object event;
+    private final AtomicReferenceArray<DeliveryReport.Delivery> deliveries;
+    private final AtomicInteger remaining;
+    private final CompletableFuture<DeliveryReport> future = new CompletableFuture<>();
+
+    DeliveryTracker(Object event, int subscriberCount) {
+        this.event = event;
+        this.deliveries = new AtomicReferenceArray<>(subscriberCount);
+        this.remaining = new AtomicInteger(subscriberCount);
+    }
+
+    CompletableFuture<DeliveryReport> future() {
+        return future;
+    }
+
+    /**
+     * Completes the slot of a delivery. Only the first outcome reported for a slot counts, so that failure paths may
+     * complete slots without knowing whether the delivery got to complete its slot itself.
+     */
+    void complete(int index, Subscriber subscriber, DeliveryReport.Outcome outcome, Throwable failure, long elapsedNanos) {
+        DeliveryReport.Delivery delivery = new DeliveryReport.Delivery(subscriber.subscriber, subscriber.method.method(),
+                outcome, failure, Duration.ofNanos(elapsedNanos));
+        if (deliveries.compareAndSet(index, null, delivery) && remaining.decrementAndGet() == 0) {
+            List<DeliveryReport.Delivery> completed = new ArrayList<>(deliveries.length());
+            for (int i = 0; i < deliveries.length(); i++) {
+                completed.add(deliveries.get(i));
+            }
+            future.complete(new DeliveryReport(event, completed));
+        }
+    }
+}
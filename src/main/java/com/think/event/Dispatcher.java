@@ -1,7 +1,8 @@
 package com.think.event;
 
 import java.util.ArrayDeque;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -56,50 +57,203 @@ abstract class Dispatcher {
         return ImmediateDispatcher.INSTANCE;
     }
 
+    /**
+     * Returns a dispatcher that hands asynchronous deliveries to {@code consumerThreads} dedicated threads through a
+     * preallocated ring of {@code bufferSize} slots, see {@link RingBufferDispatcher}.
+     */
+    static Dispatcher ringBuffer(int bufferSize, int consumerThreads, WaitStrategy waitStrategy) {
+        return new RingBufferDispatcher(bufferSize, consumerThreads, waitStrategy);
+    }
+
     /**
      * Dispatches the given {@code event} to the given {@code subscribers}.
      */
-    abstract void dispatch(Object event, Iterator<Subscriber> subscribers);
+    abstract void dispatch(Object event, Subscriber[] subscribers);
 
     /**
-     * Default event dispatcher.
+     * Dispatches the given {@code event} through the {@link GeneratedDispatch} of its subscribers. Dispatchers that do
+     * not {@link #supportsGeneratedDispatch() support} it dispatch to its subscribers as usual.
      */
-    private static final class DefaultDispatcher extends Dispatcher {
+    void dispatch(Object event, GeneratedDispatch dispatch) {
+        dispatch(event, dispatch.subscribers);
+    }
 
-        /**
-         * Per-thread queue of events to dispatch.
-         */
-        private final ThreadLocal<Queue<DefaultDispatcher.Event>> queue = ThreadLocal.withInitial(ArrayDeque::new);
+    /**
+     * Returns whether this dispatcher delivers events through a {@link GeneratedDispatch}, which only pays off if
+     * it calls the subscribers on the posting thread.
+     */
+    boolean supportsGeneratedDispatch() {
+        return false;
+    }
+
+    /**
+     * Dispatches the given {@code events}, all of the same class, to the given {@code subscribers}. Each subscriber
+     * sees the events in list order. By default this dispatches the events one by one.
+     */
+    void dispatchAll(List<?> events, Subscriber[] subscribers) {
+        for (Object event : events) {
+            dispatch(event, subscribers);
+        }
+    }
+
+    /**
+     * Releases the threads owned by this dispatcher, if any.
+     */
+    void shutdown() {
+    }
+
+    /**
+     * Default event dispatcher. Queues events posted reentrantly like {@link #perThreadDispatchQueue()}, but keeps the
+     * queue and the dispatching flag in a single per-thread {@link DispatchState} that is reused for the lifetime of
+     * the thread, so posting to {@link ThreadMode#POSTING} subscribers does not allocate in steady state.
+     */
+    private static final class DefaultDispatcher extends Dispatcher {
 
         /**
-         * Per-thread dispatch state, used to avoid reentrant event dispatching.
+         * Per-thread queue and dispatch state, used to avoid reentrant event dispatching.
          */
-        private final ThreadLocal<Boolean> dispatching = ThreadLocal.withInitial(() -> false);
+        private final ThreadLocal<DispatchState> state = ThreadLocal.withInitial(DispatchState::new);
 
         @Override
-        void dispatch(Object event, Iterator<Subscriber> subscribers) {
+        void dispatch(Object event, Subscriber[] subscribers) {
             requireNonNull(subscribers);
             // requireNonNull accommodates Android's @RecentlyNullable annotation on ThreadLocal.get
-            Queue<DefaultDispatcher.Event> queueForThread = requireNonNull(queue.get());
-            queueForThread.offer(new DefaultDispatcher.Event(event, subscribers));
+            DispatchState stateForThread = requireNonNull(state.get());
+            stateForThread.offer(event, subscribers, null);
+            drain(stateForThread);
+        }
 
-            if (!dispatching.get()) {
-                dispatching.set(true);
+        @Override
+        void dispatch(Object event, GeneratedDispatch dispatch) {
+            DispatchState stateForThread = requireNonNull(state.get());
+            stateForThread.offer(event, dispatch.subscribers, dispatch);
+            drain(stateForThread);
+        }
+
+        @Override
+        boolean supportsGeneratedDispatch() {
+            return true;
+        }
+
+        @Override
+        void dispatchAll(List<?> events, Subscriber[] subscribers) {
+            requireNonNull(subscribers);
+            DispatchState stateForThread = requireNonNull(state.get());
+            stateForThread.offer(new EventBatch(events), subscribers, null);
+            drain(stateForThread);
+        }
+
+        private void drain(DispatchState stateForThread) {
+            if (!stateForThread.dispatching) {
+                stateForThread.dispatching = true;
                 try {
-                    DefaultDispatcher.Event nextEvent;
-                    while ((nextEvent = queueForThread.poll()) != null) {
-                        while (nextEvent.subscribers.hasNext()) {
-                            nextEvent.subscribers.next().postToSubscription(nextEvent.event);
+                    while (stateForThread.head < stateForThread.tail) {
+                        int index = stateForThread.head++;
+                        Object nextEvent = stateForThread.events[index];
+                        Subscriber[] nextSubscribers = stateForThread.subscribers[index];
+                        GeneratedDispatch nextDispatch = stateForThread.dispatches[index];
+                        stateForThread.events[index] = null;
+                        stateForThread.subscribers[index] = null;
+                        stateForThread.dispatches[index] = null;
+                        if (nextDispatch != null) {
+                            nextDispatch.dispatch(nextEvent);
+                        } else if (nextEvent instanceof EventBatch batch) {
+                            dispatchBatch(batch.events, nextSubscribers);
+                        } else {
+                            dispatchEvent(nextEvent, nextSubscribers);
                         }
                     }
                 } finally {
-                    dispatching.remove();
-                    queue.remove();
+                    stateForThread.reset();
+                }
+            }
+        }
+
+        /**
+         * Delivers the event to each subscriber in priority order, all {@link Subscriber#fused} subscribers sharing the
+         * single executor task submitted at the position of the first one.
+         */
+        private static void dispatchEvent(Object event, Subscriber[] subscribers) {
+            boolean fusedDispatched = false;
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.fused) {
+                    subscriber.postToSubscription(event);
+                } else if (!fusedDispatched) {
+                    fusedDispatched = true;
+                    subscriber.dispatchFused(event, subscribers);
                 }
             }
         }
 
-        private record Event(Object event, Iterator<Subscriber> subscribers) {
+        /**
+         * Hands the whole batch to asynchronous subscribers first, then delivers it to {@link ThreadMode#POSTING}
+         * subscribers in the same event-major order a sequence of single posts would produce.
+         */
+        private static void dispatchBatch(List<?> events, Subscriber[] subscribers) {
+            boolean hasPosting = false;
+            boolean fusedDispatched = false;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.method.threadMode() == ThreadMode.POSTING) {
+                    hasPosting = true;
+                } else if (subscriber.fused) {
+                    if (!fusedDispatched) {
+                        fusedDispatched = true;
+                        subscriber.dispatchFusedAll(events, subscribers);
+                    }
+                } else {
+                    subscriber.postAllToSubscription(events);
+                }
+            }
+            if (hasPosting) {
+                for (Object event : events) {
+                    for (Subscriber subscriber : subscribers) {
+                        if (subscriber.method.threadMode() == ThreadMode.POSTING && subscriber.accepts(event)) {
+                            subscriber.invokeSubscriber(event);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Marks a queued batch of events posted with {@link EventBus#postAll(Iterable)}.
+         */
+        private record EventBatch(List<?> events) {
+        }
+
+        /**
+         * Queue of pending events of one thread. Slots are appended while dispatching and the whole queue is rewound
+         * once the outermost dispatch drained it, so the arrays only grow with the deepest reentrant post.
+         */
+        private static final class DispatchState {
+            Object[] events = new Object[16];
+            Subscriber[][] subscribers = new Subscriber[16][];
+            GeneratedDispatch[] dispatches = new GeneratedDispatch[16];
+            int head;
+            int tail;
+            boolean dispatching;
+
+            void offer(Object event, Subscriber[] eventSubscribers, GeneratedDispatch dispatch) {
+                if (tail == events.length) {
+                    events = Arrays.copyOf(events, tail << 1);
+                    subscribers = Arrays.copyOf(subscribers, tail << 1);
+                    dispatches = Arrays.copyOf(dispatches, tail << 1);
+                }
+                events[tail] = event;
+                subscribers[tail] = eventSubscribers;
+                dispatches[tail] = dispatch;
+                tail++;
+            }
+
+            void reset() {
+                // drop whatever a failing subscriber left behind
+                Arrays.fill(events, head, tail, null);
+                Arrays.fill(subscribers, head, tail, null);
+                Arrays.fill(dispatches, head, tail, null);
+                head = 0;
+                tail = 0;
+                dispatching = false;
+            }
         }
     }
 
@@ -121,7 +275,7 @@ abstract class Dispatcher {
         private final ThreadLocal<Boolean> dispatching = ThreadLocal.withInitial(() -> false);
 
         @Override
-        void dispatch(Object event, Iterator<Subscriber> subscribers) {
+        void dispatch(Object event, Subscriber[] subscribers) {
             requireNonNull(event);
             requireNonNull(subscribers);
             // requireNonNull accommodates Android's @RecentlyNullable annotation on ThreadLocal.get
@@ -133,8 +287,8 @@ abstract class Dispatcher {
                 try {
                     PerThreadQueuedDispatcher.Event nextEvent;
                     while ((nextEvent = queueForThread.poll()) != null) {
-                        while (nextEvent.subscribers.hasNext()) {
-                            nextEvent.subscribers.next().dispatchEvent(nextEvent.event);
+                        for (Subscriber subscriber : nextEvent.subscribers) {
+                            subscriber.dispatchEvent(nextEvent.event);
                         }
                     }
                 } finally {
@@ -144,7 +298,7 @@ abstract class Dispatcher {
             }
         }
 
-        private record Event(Object event, Iterator<Subscriber> subscribers) {
+        private record Event(Object event, Subscriber[] subscribers) {
         }
     }
 
@@ -177,10 +331,10 @@ abstract class Dispatcher {
         private final ConcurrentLinkedQueue<EventWithSubscriber> queue = new ConcurrentLinkedQueue<>();
 
         @Override
-        void dispatch(Object event, Iterator<Subscriber> subscribers) {
+        void dispatch(Object event, Subscriber[] subscribers) {
             requireNonNull(event);
-            while (subscribers.hasNext()) {
-                queue.add(new LegacyAsyncDispatcher.EventWithSubscriber(event, subscribers.next()));
+            for (Subscriber subscriber : subscribers) {
+                queue.add(new LegacyAsyncDispatcher.EventWithSubscriber(event, subscriber));
             }
 
             LegacyAsyncDispatcher.EventWithSubscriber e;
@@ -207,10 +361,10 @@ abstract class Dispatcher {
         private static final ImmediateDispatcher INSTANCE = new ImmediateDispatcher();
 
         @Override
-        void dispatch(Object event, Iterator<Subscriber> subscribers) {
+        void dispatch(Object event, Subscriber[] subscribers) {
             requireNonNull(event);
-            while (subscribers.hasNext()) {
-                subscribers.next().dispatchEvent(event);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.dispatchEvent(event);
             }
         }
     }
@@ -1,9 +1,20 @@
 package com.think.event;
 
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ExecutorService;
 
 /**
  * Event auto configuration.
@@ -14,9 +25,117 @@ import org.springframework.context.annotation.Configuration;
 @EnableConfigurationProperties(EventBusProperties.class)
 @ConditionalOnProperty(prefix = "com.think.eventbus", name = "enabled", havingValue = "true")
 public class EventAutoConfiguration {
+    /**
+     * Name of the catalog executor that replaces the executor of asynchronous subscribers.
+     */
+    static final String DEFAULT_EXECUTOR = "default";
+
+    static final String PROPERTIES_PREFIX = "com.think.eventbus";
 
     @Bean
-    public SubscriberPostProcessor subscriberPostProcessor() {
-        return new SubscriberPostProcessor();
+    public SubscriberPostProcessor subscriberPostProcessor(EventBusProperties properties) {
+        EventBus eventBus = eventBusBuilder("default", "", properties).build();
+        // another context or an earlier EventBus.getDefault() may own the default already
+        EventBus.installDefaultIfAbsent(eventBus);
+        return new SubscriberPostProcessor(eventBus, properties.getRegistrationThreads());
+    }
+
+    /**
+     * The default bus, which is shut down by the {@link SubscriberPostProcessor}.
+     */
+    @Bean(destroyMethod = "")
+    @Primary
+    public EventBus eventBus(SubscriberPostProcessor subscriberPostProcessor) {
+        return subscriberPostProcessor.getEventBus();
+    }
+
+    @Bean
+    @Primary
+    public EventPublisher eventPublisher(EventBus eventBus) {
+        return new EventPublisher(eventBus);
+    }
+
+    /**
+     * Declares an {@link EventBus} and an {@link EventPublisher} bean per bus under
+     * {@code com.think.eventbus.buses}, named {@code <name>EventBus} and {@code <name>EventPublisher}.
+     */
+    @Bean
+    public static BeanDefinitionRegistryPostProcessor namedEventBusRegistrar(Environment environment) {
+        return new NamedEventBusRegistrar(environment);
+    }
+
+    /**
+     * Creates the named bus {@code name}. Declared as the factory method of the bus bean rather than an instance
+     * supplier, so that AOT processing can generate its registration.
+     */
+    static EventBus namedEventBus(String name, Environment environment) {
+        return eventBusBuilder(name, name + "-", bindProperties(environment).getBuses().get(name)).build();
+    }
+
+    private static EventBusProperties bindProperties(Environment environment) {
+        return Binder.get(environment)
+                .bind(PROPERTIES_PREFIX, EventBusProperties.class)
+                .orElseGet(EventBusProperties::new);
+    }
+
+    /**
+     * Creates a builder for a bus with the given settings. Executors of a named bus are prefixed with its name, so
+     * the threads of different buses can be told apart.
+     */
+    static EventBusBuilder eventBusBuilder(String identifier, String threadNamePrefix, BusProperties properties) {
+        EventBusBuilder builder = EventBus.builder()
+                .identifier(identifier)
+                .eventInheritance(properties.isEventInheritance())
+                .orderedLanes(properties.getOrderedLanes())
+                .fuseAsyncSubscribers(properties.isFuseAsyncSubscribers())
+                .compileInvokersAfter(properties.getInvokerCompileThreshold())
+                .compileDispatchAfter(properties.getDispatchCompileThreshold())
+                .stickyEvents(properties.getSticky().getMaxEntries(), properties.getSticky().getTtl());
+        EventBusProperties.DispatcherProperties dispatcher = properties.getDispatcher();
+        if (dispatcher.getType() == EventBusProperties.DispatcherType.RING_BUFFER) {
+            builder.ringBufferDispatcher(dispatcher.getBufferSize(), dispatcher.getConsumerThreads(), dispatcher.getWaitStrategy());
+        }
+        properties.getExecutors().forEach((name, executorProperties) -> {
+            ExecutorService executor = EventThreadPoolFactory.createExecutor(threadNamePrefix + name, executorProperties);
+            if (DEFAULT_EXECUTOR.equals(name)) {
+                builder.executor(executor);
+            }
+            builder.executor(name, executor);
+        });
+        return builder;
+    }
+
+    private static final class NamedEventBusRegistrar implements BeanDefinitionRegistryPostProcessor {
+        private final Environment environment;
+
+        NamedEventBusRegistrar(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+            bindProperties(environment).getBuses().keySet().forEach(name -> {
+                String busBeanName = SubscriberPostProcessor.eventBusBeanName(name);
+                // an AOT-processed context has already registered the definitions
+                if (registry.containsBeanDefinition(busBeanName)) {
+                    return;
+                }
+                RootBeanDefinition bus = new RootBeanDefinition(EventAutoConfiguration.class);
+                bus.setTargetType(EventBus.class);
+                bus.setFactoryMethodName("namedEventBus");
+                bus.getConstructorArgumentValues().addIndexedArgumentValue(0, name);
+                bus.getConstructorArgumentValues().addIndexedArgumentValue(1, new RuntimeBeanReference("environment"));
+                bus.setDestroyMethodName("shutdown");
+                registry.registerBeanDefinition(busBeanName, bus);
+
+                RootBeanDefinition publisher = new RootBeanDefinition(EventPublisher.class);
+                publisher.getConstructorArgumentValues().addIndexedArgumentValue(0, new RuntimeBeanReference(busBeanName));
+                registry.registerBeanDefinition(SubscriberPostProcessor.eventPublisherBeanName(name), publisher);
+            });
+        }
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        }
     }
 }
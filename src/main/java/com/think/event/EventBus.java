@@ -3,16 +3,22 @@ package com.think.event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.NativeDetector;
 
 import java.lang.reflect.Method;
-import java.util.Iterator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.logging.Level;
 
 /**
@@ -24,12 +30,27 @@ public class EventBus {
     private final String identifier;
     private final SubscriberExceptionHandler exceptionHandler;
 
-    private final ExecutorService executor = new ThreadPoolExecutor(4, Runtime.getRuntime().availableProcessors(),
-            60L, TimeUnit.SECONDS,
-            new LinkedBlockingQueue<>(10000), new DefaultThreadFactory("EventBus"), new ThreadPoolExecutor.CallerRunsPolicy());
+    private final ExecutorService executor;
 
-    private final SubscriberRegistry subscribers = new SubscriberRegistry(this);
+    /**
+     * Named executors owned by this bus, see {@link #executor(String)}.
+     */
+    private final Map<String, Executor> executors;
+
+    /**
+     * Executors by name, resolved once per name.
+     */
+    private final ConcurrentMap<String, Executor> resolvedExecutors = new ConcurrentHashMap<>();
+
+    private final SubscriberRegistry subscribers;
     private final Dispatcher dispatcher;
+    private final OrderedLanes orderedLanes;
+    private final boolean fuseAsyncSubscribers;
+    private final int invokerCompileThreshold;
+    private final int dispatchCompileThreshold;
+    private final StickyEventCache stickyEvents;
+    private volatile Executor virtualThreadExecutor;
+    private volatile ScheduledExecutorService scheduler;
 
     private final SubscriberClassLoader classLoader = new SubscriberClassLoader();
 
@@ -48,6 +69,32 @@ public class EventBus {
         return defaultInstance;
     }
 
+    /**
+     * Makes {@code eventBus} the default EventBus returned by {@link #getDefault()} unless there is one already.
+     */
+    static void installDefaultIfAbsent(EventBus eventBus) {
+        synchronized (EventBus.class) {
+            if (defaultInstance == null) {
+                defaultInstance = eventBus;
+            }
+        }
+    }
+
+    /**
+     * Adds a subscriber index that is consulted before reflection by every bus, in addition to the indexes found
+     * through {@code META-INF/services}. Used by the code generated for Spring AOT.
+     */
+    public static void addIndex(SubscriberInfoIndex index) {
+        SubscriberMethodFinder.addIndex(index);
+    }
+
+    /**
+     * Creates a builder to configure a new EventBus or the default one.
+     */
+    public static EventBusBuilder builder() {
+        return new EventBusBuilder();
+    }
+
     /**
      * Creates a new EventBus named "default".
      */
@@ -79,9 +126,23 @@ public class EventBus {
             String identifier,
             Dispatcher dispatcher,
             SubscriberExceptionHandler exceptionHandler) {
-        this.identifier = Objects.requireNonNull(identifier);
-        this.dispatcher = Objects.requireNonNull(dispatcher);
-        this.exceptionHandler = Objects.requireNonNull(exceptionHandler);
+        this(builder().identifier(identifier).dispatcher(dispatcher).exceptionHandler(exceptionHandler));
+    }
+
+    EventBus(EventBusBuilder builder) {
+        this.identifier = Objects.requireNonNull(builder.identifier);
+        this.dispatcher = Objects.requireNonNull(builder.dispatcher.get());
+        this.exceptionHandler = Objects.requireNonNull(builder.exceptionHandler);
+        this.executor = builder.executor != null ? builder.executor
+                : EventThreadPoolFactory.create("EventBus", new EventBusProperties.ExecutorProperties());
+        this.executors = Map.copyOf(builder.executors);
+        this.subscribers = new SubscriberRegistry(this, builder.eventInheritance);
+        this.orderedLanes = new OrderedLanes(builder.orderedLanes, executor);
+        this.fuseAsyncSubscribers = builder.fuseAsyncSubscribers;
+        this.invokerCompileThreshold = builder.invokerCompileThreshold;
+        this.dispatchCompileThreshold = dispatcher.supportsGeneratedDispatch() && !NativeDetector.inNativeImage()
+                ? builder.dispatchCompileThreshold : 0;
+        this.stickyEvents = new StickyEventCache(builder.stickyMaxEntries, builder.stickyTtl);
     }
 
     /**
@@ -100,6 +161,104 @@ public class EventBus {
         return executor;
     }
 
+    /**
+     * Returns the executor registered under the given name, falling back to an {@link Executor} bean of that name
+     * in the application context. Each name is resolved once.
+     *
+     * @throws EventBusException if there is no such executor
+     */
+    final Executor executor(String name) {
+        return resolvedExecutors.computeIfAbsent(name, this::lookupExecutor);
+    }
+
+    private Executor lookupExecutor(String name) {
+        Executor namedExecutor = executors.get(name);
+        if (namedExecutor != null) {
+            return namedExecutor;
+        }
+        if (applicationContext != null && applicationContext.containsBean(name)) {
+            return applicationContext.getBean(name, Executor.class);
+        }
+        throw new EventBusException("No executor named '" + name + "' is configured for " + this);
+    }
+
+    /**
+     * Returns the executor starting a virtual thread per delivery, created on first use.
+     *
+     * @throws EventBusException if the running JDK has no virtual threads
+     */
+    final Executor virtualThreadExecutor() {
+        Executor executor = virtualThreadExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = virtualThreadExecutor;
+                if (executor == null) {
+                    executor = VirtualThreads.newThreadPerTaskExecutor("EventBus-" + identifier + "-virtual-");
+                    virtualThreadExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns the single-threaded scheduler for timed work such as flushing batches, created on first use.
+     */
+    final ScheduledExecutorService scheduler() {
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler == null) {
+            synchronized (this) {
+                scheduler = this.scheduler;
+                if (scheduler == null) {
+                    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                            new DefaultThreadFactory("EventBus-" + identifier + "-scheduler", true));
+                    executor.setRemoveOnCancelPolicy(true);
+                    scheduler = executor;
+                    this.scheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Returns whether the ASYNC subscribers of an event share a single executor task, see
+     * {@link EventBusBuilder#fuseAsyncSubscribers(boolean)}.
+     */
+    final boolean fusesAsyncSubscribers() {
+        return fuseAsyncSubscribers;
+    }
+
+    /**
+     * Returns after how many calls the invoker of a subscriber method is generated, see
+     * {@link EventBusBuilder#compileInvokersAfter(int)}.
+     */
+    final int invokerCompileThreshold() {
+        return invokerCompileThreshold;
+    }
+
+    /**
+     * Returns after how many posts the dispatch of an event class is generated, 0 if it never is, see
+     * {@link EventBusBuilder#compileDispatchAfter(int)}.
+     */
+    final int dispatchCompileThreshold() {
+        return dispatchCompileThreshold;
+    }
+
+    /**
+     * Returns the sticky events posted to this bus.
+     */
+    final StickyEventCache stickyEvents() {
+        return stickyEvents;
+    }
+
+    /**
+     * Returns the lanes used by subscribers that order their deliveries by key.
+     */
+    final OrderedLanes orderedLanes() {
+        return orderedLanes;
+    }
+
     /**
      * Handles the given exception thrown by a subscriber with the given context.
      */
@@ -124,6 +283,33 @@ public class EventBus {
         subscribers.register(object);
     }
 
+    /**
+     * Finds the subscriber methods of {@code object} and generates their invokers without registering them yet, see
+     * {@link #completeRegistration(Object, List)}. May be called concurrently for different objects.
+     */
+    List<Subscriber> prepareRegistration(Object object) {
+        return subscribers.prepare(object);
+    }
+
+    /**
+     * Resolves the executors of the {@link ThreadMode#CUSTOM} subscriber methods of {@code object} on the calling
+     * thread, so that {@link #prepareRegistration(Object)} on another thread finds them without looking up beans.
+     */
+    void resolveCustomExecutors(Object object) {
+        for (SubscriberMethod method : subscribers.findSubscriberMethods(object.getClass())) {
+            if (method.threadMode() == ThreadMode.CUSTOM) {
+                executor(method.threadPoolName());
+            }
+        }
+    }
+
+    /**
+     * Registers the subscribers {@link #prepareRegistration(Object) prepared} for {@code object}.
+     */
+    void completeRegistration(Object object, List<Subscriber> prepared) {
+        subscribers.publish(object, prepared);
+    }
+
     /**
      * Unregisters all subscriber methods on a registered object.
      *
@@ -134,6 +320,22 @@ public class EventBus {
         subscribers.unregister(object);
     }
 
+    /**
+     * Returns the number of events the subscriber methods of a registered object have dropped so far because their own
+     * queue was full or a newer event replaced them, see {@link com.think.event.annotation.Subscribe#queueCapacity()}
+     * and {@link com.think.event.annotation.Subscribe#conflationKey()}.
+     *
+     * @param object registered object whose subscriber methods should be counted.
+     * @return the dropped events, {@code 0} if the object is not registered.
+     */
+    public long droppedEvents(Object object) {
+        long dropped = 0;
+        for (Subscriber subscriber : subscribers.getSubscribersOf(object)) {
+            dropped += subscriber.droppedEvents();
+        }
+        return dropped;
+    }
+
     /**
      * Posts an event to all registered subscribers. This method will return successfully after the
      * event has been posted to all subscribers, and regardless of any exceptions thrown by
@@ -146,15 +348,176 @@ public class EventBus {
      */
     public void post(Object event) {
         Objects.requireNonNull(event);
-        Iterator<Subscriber> eventSubscribers = subscribers.getSubscribers(event);
-        if (eventSubscribers.hasNext()) {
-            dispatcher.dispatch(event, eventSubscribers);
+        SubscriberRegistry.DispatchTable table = subscribers.getDispatchTable(event);
+        Subscriber[] eventSubscribers = table.subscribers;
+        if (eventSubscribers.length > 0) {
+            GeneratedDispatch generated = table.generatedDispatch();
+            if (generated != null) {
+                dispatcher.dispatch(event, generated);
+            } else {
+                dispatcher.dispatch(event, eventSubscribers);
+            }
         } else if (!(event instanceof DeadEvent)) {
             // the event had no subscribers and was not itself a DeadEvent
             post(new DeadEvent(this, event));
         }
     }
 
+    /**
+     * Posts the given event to the event bus and holds on to the event (because it is sticky). The most recent sticky
+     * event of an event's class is kept in memory for future access by subscribers using
+     * {@link com.think.event.annotation.Subscribe#sticky()} and {@link #getStickyEvent(Class)}, within the bounds set by
+     * {@link EventBusBuilder#stickyEvents(int, Duration)}.
+     *
+     * @param event event to post.
+     */
+    public void postSticky(Object event) {
+        Objects.requireNonNull(event);
+        stickyEvents.put(event);
+        // Should be posted after it is putted, in case the subscriber wants to remove immediately
+        post(event);
+    }
+
+    /**
+     * Gets the most recent sticky event for the given type, {@code null} if there is none or it has expired.
+     *
+     * @see #postSticky(Object)
+     */
+    public <T> T getStickyEvent(Class<T> eventType) {
+        return eventType.cast(stickyEvents.get(eventType));
+    }
+
+    /**
+     * Remove and gets the recent sticky event for the given event type.
+     *
+     * @see #postSticky(Object)
+     */
+    public <T> T removeStickyEvent(Class<T> eventType) {
+        return eventType.cast(stickyEvents.remove(eventType));
+    }
+
+    /**
+     * Removes the sticky event if it equals to the given event.
+     *
+     * @return true if the events matched and the sticky event was removed.
+     */
+    public boolean removeStickyEvent(Object event) {
+        return stickyEvents.remove(event);
+    }
+
+    /**
+     * Removes all sticky events.
+     */
+    public void removeAllStickyEvents() {
+        stickyEvents.clear();
+    }
+
+    /**
+     * Posts an event to all registered subscribers like {@link #post(Object)}, and returns a future of the outcome of
+     * every delivery. The future completes, on the thread finishing the last delivery, once every subscriber method
+     * has returned or thrown, whatever its thread mode; no thread waits for that. Exceptions thrown by subscribers are
+     * still handed to the exception handler and the future never completes exceptionally.
+     *
+     * <p>The event bypasses the bus's {@link Dispatcher} and is dispatched right away on the calling thread, even if
+     * that thread is dispatching another event, so it may overtake events {@link #post(Object) posted} from within a
+     * subscriber. Ring buffer dispatching, see
+     * {@link EventBusBuilder#ringBufferDispatcher(int, int, WaitStrategy)}, does not apply, and asynchronous
+     * subscribers each get their own executor task instead of a fused one, see
+     * {@link EventBusBuilder#fuseAsyncSubscribers(boolean)}. Deliveries to subscribers with their own queue, see
+     * {@link com.think.event.annotation.Subscribe#queueCapacity()},
+     * {@link com.think.event.annotation.Subscribe#conflationKey()} and
+     * {@link com.think.event.annotation.Subscribe#maxBatchSize()}, are not tracked and reported as
+     * {@link DeliveryReport.Outcome#QUEUED}. If no subscribers have been subscribed for {@code event}'s class, it is
+     * reposted as {@link DeadEvent} and the report has no deliveries.
+     *
+     * @param event event to post.
+     * @return the future report, already completed if every subscriber runs on the posting thread.
+     */
+    public CompletableFuture<DeliveryReport> postAsync(Object event) {
+        Objects.requireNonNull(event);
+        Subscriber[] eventSubscribers = subscribers.getSubscribers(event);
+        if (eventSubscribers.length == 0) {
+            post(event);
+            return CompletableFuture.completedFuture(new DeliveryReport(event, List.of()));
+        }
+        DeliveryTracker tracker = new DeliveryTracker(event, eventSubscribers.length);
+        for (int i = 0; i < eventSubscribers.length; i++) {
+            try {
+                eventSubscribers[i].postTrackedToSubscription(event, tracker, i);
+            } catch (Error e) {
+                // the error aborts the post, the deliveries it skipped fail with it
+                for (int j = i; j < eventSubscribers.length; j++) {
+                    tracker.complete(j, eventSubscribers[j], DeliveryReport.Outcome.FAILURE, e, 0);
+                }
+                throw e;
+            }
+        }
+        return tracker.future();
+    }
+
+    /**
+     * Posts a payload to the subscribers of every topic pattern that matches the given topic and whose parameter type
+     * accepts the payload, see {@link com.think.event.annotation.Subscribe#topic()}. Subscribers without a topic do not
+     * receive it. If nothing matches, the payload is reposted as {@link DeadEvent}.
+     *
+     * @param topic   dot separated topic without wildcards, e.g. {@code order.eu.created}.
+     * @param payload event to post.
+     */
+    public void post(String topic, Object payload) {
+        Objects.requireNonNull(topic);
+        Objects.requireNonNull(payload);
+        Subscriber[] topicSubscribers = subscribers.getSubscribers(topic, payload);
+        if (topicSubscribers.length > 0) {
+            dispatcher.dispatch(payload, topicSubscribers);
+        } else if (!(payload instanceof DeadEvent)) {
+            post(new DeadEvent(this, payload));
+        }
+    }
+
+    /**
+     * Posts all given events to their registered subscribers, in iteration order. Consecutive events of the same
+     * class are resolved against the registry once and handed to the dispatcher as one batch, asynchronous subscribers
+     * receive such a batch as a few executor tasks instead of one task per event. Events without subscribers are
+     * reposted as {@link DeadEvent}s like with {@link #post(Object)}.
+     *
+     * @param events events to post.
+     */
+    public void postAll(Iterable<?> events) {
+        Objects.requireNonNull(events);
+        List<Object> batch = new ArrayList<>();
+        for (Object event : events) {
+            Objects.requireNonNull(event);
+            if (!batch.isEmpty() && batch.get(0).getClass() != event.getClass()) {
+                postBatch(batch);
+                batch = new ArrayList<>();
+            }
+            batch.add(event);
+        }
+        if (!batch.isEmpty()) {
+            postBatch(batch);
+        }
+    }
+
+    /**
+     * Posts all given events to their registered subscribers, see {@link #postAll(Iterable)}.
+     *
+     * @param events events to post.
+     */
+    public void postAll(Object... events) {
+        postAll(Arrays.asList(events));
+    }
+
+    private void postBatch(List<Object> batch) {
+        Subscriber[] eventSubscribers = subscribers.getSubscribers(batch.get(0));
+        if (eventSubscribers.length > 0) {
+            dispatcher.dispatchAll(batch, eventSubscribers);
+        } else if (!(batch.get(0) instanceof DeadEvent)) {
+            for (Object event : batch) {
+                post(new DeadEvent(this, event));
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "(" + identifier + ")";
@@ -165,7 +528,22 @@ public class EventBus {
     }
 
     void shutdown() {
+        dispatcher.shutdown();
+        if (scheduler != null) {
+            // already scheduled flushes still run
+            scheduler.shutdown();
+        }
         executor.shutdown();
+        for (Executor namedExecutor : executors.values()) {
+            if (namedExecutor instanceof ExecutorService executorService) {
+                executorService.shutdown();
+            }
+        }
+        synchronized (EventBus.class) {
+            if (defaultInstance == this) {
+                defaultInstance = null;
+            }
+        }
     }
 
     public void setApplicationContext(ApplicationContext applicationContext) {
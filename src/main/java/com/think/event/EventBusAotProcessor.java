@@ -0,0 +1,217 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import com.think.event.annotation.SubscribeService;
+import com.think.event.processor.SubscriberIndexWriter;
+import org.springframework.aot.generate.GeneratedMethod;
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.javapoet.ClassName;
+import org.springframework.javapoet.CodeBlock;
+import org.springframework.util.ClassUtils;
+
+import javax.lang.model.element.Modifier;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prepares {@link SubscribeService} beans for Spring AOT and native images, which cannot generate and define
+ * subscriber invokers at runtime.
+ * <p>
+ * At build time the subscriber methods of every such bean are validated and, per declaring class, a
+ * {@link SubscriberInfoIndex} with pre-compiled invokers is generated next to the class by the same
+ * {@link SubscriberIndexWriter} as the compile-time index. The bean factory initialization adds these indexes before
+ * any subscriber is registered. Reflection hints cover the lookup
+ * of the indexed methods, the reflective invocation of methods the generated code cannot call, e.g. of private
+ * nested classes, and the accessors of order keys, conflation keys and conditions.
+ *
+ * @author veione
+ */
+class EventBusAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Set<Class<?>> subscriberClasses = new LinkedHashSet<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> beanType = beanFactory.getType(beanName, false);
+            if (beanType != null) {
+                Class<?> userClass = ClassUtils.getUserClass(beanType);
+                if (AnnotationUtils.findAnnotation(userClass, SubscribeService.class) != null) {
+                    subscriberClasses.add(userClass);
+                }
+            }
+        }
+        return subscriberClasses.isEmpty() ? null : new SubscriberContribution(subscriberClasses);
+    }
+
+    private static final class SubscriberContribution implements BeanFactoryInitializationAotContribution {
+        private final Set<Class<?>> subscriberClasses;
+
+        SubscriberContribution(Set<Class<?>> subscriberClasses) {
+            this.subscriberClasses = subscriberClasses;
+        }
+
+        @Override
+        public void applyTo(GenerationContext generationContext, BeanFactoryInitializationCode beanFactoryInitializationCode) {
+            ReflectionHints hints = generationContext.getRuntimeHints().reflection();
+            SubscriberMethodFinder finder = new SubscriberMethodFinder();
+            Map<Class<?>, List<Method>> methodsByClass = new LinkedHashMap<>();
+            for (Class<?> subscriberClass : subscriberClasses) {
+                // fails the build on subscriber methods the registration would reject
+                for (SubscriberMethod subscriberMethod : finder.findUsingReflection(subscriberClass)) {
+                    registerAccessorHints(hints, subscriberMethod);
+                }
+                for (Class<?> clazz = subscriberClass; !isJdkClass(clazz); clazz = clazz.getSuperclass()) {
+                    methodsByClass.computeIfAbsent(clazz, SubscriberContribution::declaredSubscriberMethods);
+                }
+            }
+
+            List<ClassName> generatedIndexes = new ArrayList<>();
+            methodsByClass.forEach((clazz, methods) -> {
+                if (methods.isEmpty()) {
+                    hints.registerType(clazz, MemberCategory.INTROSPECT_DECLARED_METHODS);
+                } else if (isAccessible(clazz, methods)) {
+                    for (Method method : methods) {
+                        hints.registerMethod(method, ExecutableMode.INTROSPECT);
+                    }
+                    boolean checkSuperclass = superclassHasSubscribers(clazz, methodsByClass);
+                    generatedIndexes.add(generateIndex(generationContext, clazz, methods, checkSuperclass));
+                } else {
+                    hints.registerType(clazz, MemberCategory.INTROSPECT_DECLARED_METHODS);
+                    for (Method method : methods) {
+                        hints.registerMethod(method, ExecutableMode.INVOKE);
+                    }
+                }
+            });
+            if (generatedIndexes.isEmpty()) {
+                return;
+            }
+
+            CodeBlock.Builder addIndexes = CodeBlock.builder();
+            for (ClassName index : generatedIndexes) {
+                addIndexes.addStatement("$T.addIndex(new $T())", EventBus.class, index);
+            }
+            GeneratedMethod registerIndex = beanFactoryInitializationCode.getMethods().add("registerEventBusSubscriberIndex",
+                    method -> method.addJavadoc("Adds the subscriber indexes generated for the event bus.")
+                            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                            .addParameter(DefaultListableBeanFactory.class, "beanFactory")
+                            .addCode(addIndexes.build()));
+            beanFactoryInitializationCode.addInitializer(registerIndex.toMethodReference());
+        }
+
+        /**
+         * Generates the index of the subscriber methods {@code clazz} declares next to the class, with the same writer
+         * as the {@link com.think.event.processor.SubscriberIndexProcessor}, and returns its name.
+         */
+        private static ClassName generateIndex(GenerationContext generationContext, Class<?> clazz, List<Method> methods,
+                                               boolean checkSuperclass) {
+            List<SubscriberIndexWriter.IndexedMethod> indexedMethods = new ArrayList<>();
+            for (Method method : methods) {
+                indexedMethods.add(new SubscriberIndexWriter.IndexedMethod(method.getName(),
+                        method.getParameterTypes()[0].getCanonicalName()));
+            }
+            String packageName = clazz.getPackageName();
+            String simpleName = (packageName.isEmpty() ? clazz.getName()
+                    : clazz.getName().substring(packageName.length() + 1)).replace('$', '_') + "__EventBusSubscribers";
+            String indexName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+            generationContext.getGeneratedFiles().addSourceFile(indexName,
+                    SubscriberIndexWriter.write(indexName, EventBusAotProcessor.class.getName(), List.of(
+                            new SubscriberIndexWriter.IndexedSubscriber(clazz.getCanonicalName(), checkSuperclass,
+                                    indexedMethods))));
+            return ClassName.get(packageName, simpleName);
+        }
+
+        private static void registerAccessorHints(ReflectionHints hints, SubscriberMethod subscriberMethod) {
+            // native images read keys and evaluate conditions through reflection
+            if (subscriberMethod.orderKey() != null) {
+                hints.registerMethod(subscriberMethod.orderKey(), ExecutableMode.INVOKE);
+            }
+            if (subscriberMethod.conflationKey() != null) {
+                hints.registerMethod(subscriberMethod.conflationKey(), ExecutableMode.INVOKE);
+            }
+            if (subscriberMethod.condition() != null) {
+                for (Method accessor : EventConditions.accessors(subscriberMethod.eventType(), subscriberMethod.condition())) {
+                    hints.registerMethod(accessor, ExecutableMode.INVOKE);
+                }
+            }
+        }
+
+        /**
+         * Returns the subscriber methods {@code clazz} declares, in a stable order.
+         */
+        private static List<Method> declaredSubscriberMethods(Class<?> clazz) {
+            List<Method> methods = new ArrayList<>();
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Subscribe.class) && !method.isBridge() && !method.isSynthetic()) {
+                    methods.add(method);
+                }
+            }
+            methods.sort(Comparator.comparing(Method::getName)
+                    .thenComparing(method -> method.getParameterTypes()[0].getName()));
+            return methods;
+        }
+
+        private static boolean superclassHasSubscribers(Class<?> clazz, Map<Class<?>, List<Method>> methodsByClass) {
+            for (Class<?> superclass = clazz.getSuperclass(); !isJdkClass(superclass); superclass = superclass.getSuperclass()) {
+                if (!methodsByClass.get(superclass).isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns whether code generated in the package of {@code clazz} can call its subscriber methods.
+         */
+        private static boolean isAccessible(Class<?> clazz, List<Method> methods) {
+            String packageName = clazz.getPackageName();
+            if (!isAccessible(clazz, packageName)) {
+                return false;
+            }
+            for (Method method : methods) {
+                if (!isAccessible(method.getParameterTypes()[0], packageName)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isAccessible(Class<?> type, String packageName) {
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (type.isPrimitive()) {
+                return true;
+            }
+            if (type.isLocalClass() || type.isAnonymousClass()) {
+                return false;
+            }
+            for (Class<?> clazz = type; clazz != null; clazz = clazz.getEnclosingClass()) {
+                int modifiers = clazz.getModifiers();
+                if (java.lang.reflect.Modifier.isPrivate(modifiers) || (!java.lang.reflect.Modifier.isPublic(modifiers)
+                        && !clazz.getPackageName().equals(packageName))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isJdkClass(Class<?> clazz) {
+            return clazz == null || clazz.getName().startsWith("java.") || clazz.getName().startsWith("javax.");
+        }
+    }
+}
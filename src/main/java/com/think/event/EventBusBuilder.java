@@ -0,0 +1,200 @@
+package com.think.event;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Creates EventBus instances with custom parameters and also allows to install a custom default EventBus instance.
+ * Create a new builder using {@link EventBus#builder()}.
+ *
+ * @author veione
+ */
+public class EventBusBuilder {
+    String identifier = "default";
+    Supplier<Dispatcher> dispatcher = Dispatcher::defaultDispatchQueue;
+    SubscriberExceptionHandler exceptionHandler = EventBus.LoggingHandler.INSTANCE;
+    boolean eventInheritance = true;
+    int orderedLanes = Runtime.getRuntime().availableProcessors();
+    boolean fuseAsyncSubscribers;
+    int invokerCompileThreshold;
+    int dispatchCompileThreshold;
+    int stickyMaxEntries = 256;
+    Duration stickyTtl = Duration.ZERO;
+    ExecutorService executor;
+    final Map<String, Executor> executors = new LinkedHashMap<>();
+
+    EventBusBuilder() {
+    }
+
+    /**
+     * Identifier of the EventBus, used in thread and logger names (default: "default").
+     */
+    public EventBusBuilder identifier(String identifier) {
+        this.identifier = Objects.requireNonNull(identifier);
+        return this;
+    }
+
+    /**
+     * Handler for exceptions thrown by subscriber methods (default: logs them).
+     */
+    public EventBusBuilder exceptionHandler(SubscriberExceptionHandler exceptionHandler) {
+        this.exceptionHandler = Objects.requireNonNull(exceptionHandler);
+        return this;
+    }
+
+    /**
+     * By default, EventBus considers the event class hierarchy (subscribers to super classes and interfaces will be
+     * notified). Switching this feature off delivers events to subscribers of their exact class only, which skips the
+     * hierarchy resolution when a dispatch table is built.
+     */
+    public EventBusBuilder eventInheritance(boolean eventInheritance) {
+        this.eventInheritance = eventInheritance;
+        return this;
+    }
+
+    /**
+     * Executor of asynchronous subscribers (default: a bounded pool sized by the number of processors). The bus takes
+     * ownership and shuts it down with itself.
+     */
+    public EventBusBuilder executor(ExecutorService executor) {
+        this.executor = Objects.requireNonNull(executor);
+        return this;
+    }
+
+    /**
+     * Uses a work-stealing {@link java.util.concurrent.ForkJoinPool} in async mode as executor of asynchronous
+     * subscribers. Suits events that fan out to many short subscribers which post follow-up events: deliveries posted
+     * on a worker go to that worker's local deque instead of a shared queue.
+     *
+     * @param parallelism number of worker threads
+     */
+    public EventBusBuilder forkJoinExecutor(int parallelism) {
+        return executor(EventThreadPoolFactory.createForkJoinPool("EventBus", parallelism, Thread.NORM_PRIORITY));
+    }
+
+    /**
+     * Registers an executor for {@link ThreadMode#CUSTOM} subscribers with the given
+     * {@link com.think.event.annotation.Subscribe#threadPoolName()}. Names without a registered executor are looked up
+     * as beans in the application context. Registered {@link ExecutorService}s are shut down with the bus.
+     */
+    public EventBusBuilder executor(String name, Executor executor) {
+        executors.put(Objects.requireNonNull(name), Objects.requireNonNull(executor));
+        return this;
+    }
+
+    /**
+     * Number of lanes that deliveries of subscribers with an order key are striped over, rounded up to a power of 2
+     * (default: number of processors). Deliveries with the same key always use the same lane.
+     */
+    public EventBusBuilder orderedLanes(int orderedLanes) {
+        if (orderedLanes <= 0) {
+            throw new IllegalArgumentException("orderedLanes must be positive, but was " + orderedLanes);
+        }
+        this.orderedLanes = orderedLanes;
+        return this;
+    }
+
+    /**
+     * Delivers an event to all of its {@link ThreadMode#ASYNC} subscribers in a single executor task which invokes them
+     * one after another in priority order, instead of one task per subscriber (default: false). Subscribers with
+     * {@link com.think.event.annotation.Subscribe#parallel()} still get a task of their own. Applies to the default
+     * dispatcher.
+     */
+    public EventBusBuilder fuseAsyncSubscribers(boolean fuseAsyncSubscribers) {
+        this.fuseAsyncSubscribers = fuseAsyncSubscribers;
+        return this;
+    }
+
+    /**
+     * Calls subscriber methods through a method handle until they were called {@code calls} times, and only then
+     * generates their invoker class (default: 0, generates it on registration). Spares the classes and metaspace of
+     * subscribers that rarely receive events. Invokers are shared by all buses, so the threshold of the bus that
+     * registers a subscriber method first applies to it.
+     */
+    public EventBusBuilder compileInvokersAfter(int calls) {
+        if (calls < 0) {
+            throw new IllegalArgumentException("calls must not be negative, but was " + calls);
+        }
+        this.invokerCompileThreshold = calls;
+        return this;
+    }
+
+    /**
+     * Generates a class delivering events of a class to all of its subscribers once {@code posts} events of the class
+     * were posted since its subscribers last changed (default: 0, never). The class calls {@link ThreadMode#POSTING}
+     * subscribers without condition or own queue directly, in priority order, which the JIT can inline. The class is
+     * generated on the bus's executor, posts keep being dispatched generically until it is ready. It is generated
+     * again when the subscribers change, event classes whose subscribers keep changing are dispatched generically.
+     * Applies to {@link EventBus#post(Object)} with the default dispatcher.
+     */
+    public EventBusBuilder compileDispatchAfter(int posts) {
+        if (posts < 0) {
+            throw new IllegalArgumentException("posts must not be negative, but was " + posts);
+        }
+        this.dispatchCompileThreshold = posts;
+        return this;
+    }
+
+    /**
+     * Bounds the sticky events kept by {@link EventBus#postSticky(Object)}: at most {@code maxEntries} event classes
+     * (default: 256) with the least recently used evicted first, each event for at most {@code ttl} (default: zero,
+     * events do not expire).
+     */
+    public EventBusBuilder stickyEvents(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive, but was " + maxEntries);
+        }
+        this.stickyMaxEntries = maxEntries;
+        this.stickyTtl = Objects.requireNonNull(ttl);
+        return this;
+    }
+
+    /**
+     * Hands {@link ThreadMode#ASYNC} deliveries to {@code consumerThreads} dedicated threads through a preallocated
+     * ring of {@code bufferSize} slots instead of the bus executor.
+     *
+     * @param bufferSize      number of slots, must be a power of 2
+     * @param consumerThreads number of threads invoking the subscribers
+     * @param waitStrategy    how producers and consumers wait on a full or empty ring
+     */
+    public EventBusBuilder ringBufferDispatcher(int bufferSize, int consumerThreads, WaitStrategy waitStrategy) {
+        Objects.requireNonNull(waitStrategy);
+        this.dispatcher = () -> Dispatcher.ringBuffer(bufferSize, consumerThreads, waitStrategy);
+        return this;
+    }
+
+    EventBusBuilder dispatcher(Dispatcher dispatcher) {
+        Objects.requireNonNull(dispatcher);
+        this.dispatcher = () -> dispatcher;
+        return this;
+    }
+
+    /**
+     * Installs the default EventBus returned by {@link EventBus#getDefault()} using this builders' values. Must be
+     * done only once before the first usage of the default EventBus.
+     *
+     * @throws EventBusException if there's already a default EventBus instance in place
+     */
+    public EventBus installDefaultEventBus() {
+        synchronized (EventBus.class) {
+            if (EventBus.defaultInstance != null) {
+                throw new EventBusException("Default instance already exists." +
+                        " It may be only set once before it's used the first time to ensure consistent behavior.");
+            }
+            EventBus.defaultInstance = build();
+            return EventBus.defaultInstance;
+        }
+    }
+
+    /**
+     * Builds an EventBus based on the current configuration.
+     */
+    public EventBus build() {
+        return new EventBus(this);
+    }
+}
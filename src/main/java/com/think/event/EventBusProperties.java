@@ -2,8 +2,305 @@ package com.think.event;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @ConfigurationProperties("com.think.eventbus")
-public class EventBusProperties {
+public class EventBusProperties extends BusProperties {
 
     private boolean enabled = true;
+
+    /**
+     * Number of threads finding the subscriber methods of subscriber beans and generating their invokers while the
+     * context starts, 0 registers each bean on the thread creating it. All of them are registered before the context
+     * is refreshed, but events posted while it starts may miss subscriber beans whose registration is still pending.
+     */
+    private int registrationThreads = 0;
+
+    /**
+     * Additional buses by name, each with its own registry, dispatcher and executors. Their settings are the same as
+     * those of the default bus, which are set at the top level.
+     */
+    private final Map<String, BusProperties> buses = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRegistrationThreads() {
+        return registrationThreads;
+    }
+
+    public void setRegistrationThreads(int registrationThreads) {
+        this.registrationThreads = registrationThreads;
+    }
+
+    public Map<String, BusProperties> getBuses() {
+        return buses;
+    }
+
+    public enum DispatcherType {
+        /**
+         * Per-thread queued dispatch, asynchronous subscribers run on the bus executor.
+         */
+        DEFAULT,
+        /**
+         * Asynchronous subscribers are fed through a preallocated ring buffer to dedicated consumer threads.
+         */
+        RING_BUFFER
+    }
+
+    public static class DispatcherProperties {
+        private DispatcherType type = DispatcherType.DEFAULT;
+
+        /**
+         * Number of ring buffer slots, must be a power of 2.
+         */
+        private int bufferSize = 1024;
+
+        /**
+         * Number of threads consuming the ring buffer.
+         */
+        private int consumerThreads = 1;
+
+        /**
+         * How ring buffer producers and consumers wait on a full or empty ring.
+         */
+        private WaitStrategy waitStrategy = WaitStrategy.PARK;
+
+        public DispatcherType getType() {
+            return type;
+        }
+
+        public void setType(DispatcherType type) {
+            this.type = type;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getConsumerThreads() {
+            return consumerThreads;
+        }
+
+        public void setConsumerThreads(int consumerThreads) {
+            this.consumerThreads = consumerThreads;
+        }
+
+        public WaitStrategy getWaitStrategy() {
+            return waitStrategy;
+        }
+
+        public void setWaitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+        }
+    }
+
+    public static class StickyProperties {
+        /**
+         * Maximum number of event classes whose last sticky event is kept, the least recently used is evicted first.
+         */
+        private int maxEntries = 256;
+
+        /**
+         * How long a sticky event is kept, zero keeps it until it is replaced or evicted.
+         */
+        private Duration ttl = Duration.ZERO;
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public enum ExecutorType {
+        /**
+         * {@link java.util.concurrent.ThreadPoolExecutor} with a single shared queue.
+         */
+        THREAD_POOL,
+        /**
+         * Work-stealing {@link java.util.concurrent.ForkJoinPool} in async mode. Tasks submitted from one of its
+         * workers, such as the deliveries of events posted by a subscriber, go to that worker's local deque.
+         */
+        FORK_JOIN
+    }
+
+    public enum QueueType {
+        /**
+         * Bounded {@link java.util.concurrent.LinkedBlockingQueue}.
+         */
+        LINKED,
+        /**
+         * Bounded {@link java.util.concurrent.ArrayBlockingQueue}.
+         */
+        ARRAY,
+        /**
+         * {@link java.util.concurrent.SynchronousQueue}, tasks are handed directly to a thread.
+         */
+        SYNCHRONOUS
+    }
+
+    public enum RejectionPolicy {
+        /**
+         * The posting thread runs the task itself.
+         */
+        CALLER_RUNS,
+        /**
+         * The task is rejected with a {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        ABORT,
+        /**
+         * The task is silently dropped.
+         */
+        DISCARD,
+        /**
+         * The oldest queued task is dropped.
+         */
+        DISCARD_OLDEST
+    }
+
+    public static class ExecutorProperties {
+        private ExecutorType type = ExecutorType.THREAD_POOL;
+
+        /**
+         * Number of worker threads of a fork-join pool, the other sizing and queue settings only apply to thread pools.
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private int coreSize = 4;
+
+        /**
+         * Maximum number of threads, never less than the core size.
+         */
+        private int maxSize = Runtime.getRuntime().availableProcessors();
+
+        private QueueType queueType = QueueType.LINKED;
+
+        /**
+         * Capacity of a linked or array queue.
+         */
+        private int queueCapacity = 10000;
+
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+        /**
+         * How long threads above the core size may stay idle.
+         */
+        private Duration keepAlive = Duration.ofSeconds(60);
+
+        private boolean allowCoreThreadTimeOut = false;
+
+        private int threadPriority = Thread.NORM_PRIORITY;
+
+        private boolean daemon = false;
+
+        public ExecutorType getType() {
+            return type;
+        }
+
+        public void setType(ExecutorType type) {
+            this.type = type;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getCoreSize() {
+            return coreSize;
+        }
+
+        public void setCoreSize(int coreSize) {
+            this.coreSize = coreSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public QueueType getQueueType() {
+            return queueType;
+        }
+
+        public void setQueueType(QueueType queueType) {
+            this.queueType = queueType;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public RejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public boolean isAllowCoreThreadTimeOut() {
+            return allowCoreThreadTimeOut;
+        }
+
+        public void setAllowCoreThreadTimeOut(boolean allowCoreThreadTimeOut) {
+            this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
+        }
+
+        public int getThreadPriority() {
+            return threadPriority;
+        }
+
+        public void setThreadPriority(int threadPriority) {
+            this.threadPriority = threadPriority;
+        }
+
+        public boolean isDaemon() {
+            return daemon;
+        }
+
+        public void setDaemon(boolean daemon) {
+            this.daemon = daemon;
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package com.think.event;
+
+/**
+ * Compiled {@link com.think.event.annotation.Subscribe#condition()} of a subscriber method, generated by
+ * {@link EventConditions}. The static methods are the runtime support of the generated code.
+ *
+ * @author veione
+ */
+public interface EventCondition {
+    int EQ = 0;
+    int NE = 1;
+    int LT = 2;
+    int LE = 3;
+    int GT = 4;
+    int GE = 5;
+
+    /**
+     * Returns whether the subscriber method should receive the event.
+     */
+    boolean test(Object event);
+
+    /**
+     * Returns whether the value is {@link Boolean#TRUE}, {@code null} counts as false.
+     */
+    static boolean isTrue(Object value) {
+        return Boolean.TRUE.equals(value);
+    }
+
+    /**
+     * Compares two boxed operands. Numbers are compared by value whatever their type, enums are compared to strings by
+     * name, and any ordering involving {@code null} is false.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static boolean compare(Object left, Object right, int operator) {
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber
+                && !(isIntegral(leftNumber) && isIntegral(rightNumber))) {
+            // the primitive comparison, so NaN is unequal and unordered
+            double leftValue = leftNumber.doubleValue();
+            double rightValue = rightNumber.doubleValue();
+            return switch (operator) {
+                case EQ -> leftValue == rightValue;
+                case NE -> leftValue != rightValue;
+                case LT -> leftValue < rightValue;
+                case LE -> leftValue <= rightValue;
+                case GT -> leftValue > rightValue;
+                case GE -> leftValue >= rightValue;
+                default -> throw new IllegalArgumentException("Unknown operator " + operator);
+            };
+        }
+        if (operator == EQ || operator == NE) {
+            return looselyEquals(left, right) == (operator == EQ);
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        int comparison;
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+            comparison = compareNumbers(leftNumber, rightNumber);
+        } else if (left instanceof Enum<?> leftEnum && right instanceof String rightName) {
+            comparison = leftEnum.name().compareTo(rightName);
+        } else {
+            comparison = ((Comparable) left).compareTo(right);
+        }
+        return switch (operator) {
+            case LT -> comparison < 0;
+            case LE -> comparison <= 0;
+            case GT -> comparison > 0;
+            case GE -> comparison >= 0;
+            default -> throw new IllegalArgumentException("Unknown operator " + operator);
+        };
+    }
+
+    private static boolean looselyEquals(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+            return compareNumbers(leftNumber, rightNumber) == 0;
+        }
+        if (left instanceof Enum<?> leftEnum && right instanceof String rightName) {
+            return leftEnum.name().equals(rightName);
+        }
+        if (left instanceof String leftName && right instanceof Enum<?> rightEnum) {
+            return rightEnum.name().equals(leftName);
+        }
+        return left.equals(right);
+    }
+
+    private static int compareNumbers(Number left, Number right) {
+        return Long.compare(left.longValue(), right.longValue());
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+}
@@ -0,0 +1,761 @@
+package com.think.event;
+
+import com.think.event.util.Primitives;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.springframework.core.NativeDetector;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.think.event.util.AsmUtils.toInternalName;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DCMPG;
+import static org.objectweb.asm.Opcodes.DCMPL;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.F2D;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.I2L;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.ICONST_1;
+import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.IFGE;
+import static org.objectweb.asm.Opcodes.IFGT;
+import static org.objectweb.asm.Opcodes.IFLE;
+import static org.objectweb.asm.Opcodes.IFLT;
+import static org.objectweb.asm.Opcodes.IFNE;
+import static org.objectweb.asm.Opcodes.IFNULL;
+import static org.objectweb.asm.Opcodes.IF_ICMPEQ;
+import static org.objectweb.asm.Opcodes.IF_ICMPNE;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.IXOR;
+import static org.objectweb.asm.Opcodes.L2D;
+import static org.objectweb.asm.Opcodes.LCMP;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+/**
+ * Parses {@link com.think.event.annotation.Subscribe#condition()} expressions and compiles them to
+ * {@link EventCondition} classes.
+ * <p>
+ * Grammar, loosest binding first:
+ * <pre>
+ * or         := and ('||' and)*
+ * and        := unary ('&amp;&amp;' unary)*
+ * unary      := '!' unary | comparison
+ * comparison := operand (('==' | '!=' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=') operand)?
+ * operand    := '(' or ')' | literal | path
+ * literal    := number | 'text' | "text" | true | false | null
+ * path       := name ('.' name)*
+ * </pre>
+ * A path name resolves like {@link com.think.event.annotation.Subscribe#orderKey()}: {@code name()},
+ * {@code getName()} or {@code isName()}. Nested paths are null-safe, a {@code null} along the way yields {@code null}.
+ * <p>
+ * A condition is compiled once per event type and expression, shared by every subscriber and every bus, and defined
+ * next to the event type by {@link ClassDefiner}, so it is unloaded together with it.
+ *
+ * @author veione
+ */
+final class EventConditions {
+    private static final ClassValue<ConcurrentMap<String, EventCondition>> CONDITIONS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<String, EventCondition> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final String CONDITION_NAME = toInternalName(EventCondition.class.getName());
+    private static final int EVENT_SLOT = 2;
+
+    private EventConditions() {
+    }
+
+    /**
+     * Parses and type-checks {@code expression} against {@code eventType}.
+     *
+     * @throws EventBusException if the expression is malformed or refers to unknown properties
+     */
+    static Node parse(Class<?> eventType, String expression) {
+        return new Parser(eventType, expression).parseExpression();
+    }
+
+    /**
+     * Returns the accessors {@code expression} calls.
+     *
+     * @throws EventBusException if the expression is malformed or refers to unknown properties
+     */
+    static List<Method> accessors(Class<?> eventType, String expression) {
+        Parser parser = new Parser(eventType, expression);
+        parser.parseExpression();
+        return parser.accessors;
+    }
+
+    /**
+     * Returns the compiled condition for {@code expression}, compiling it on first use.
+     *
+     * @throws EventBusException if the expression is malformed or refers to unknown properties
+     */
+    static EventCondition compile(Class<?> eventType, String expression) {
+        ConcurrentMap<String, EventCondition> conditions = CONDITIONS.get(eventType);
+        EventCondition condition = conditions.get(expression);
+        if (condition == null) {
+            // compiling under the map's bin lock keeps concurrent registrations from defining duplicates
+            condition = conditions.computeIfAbsent(expression, e -> generate(eventType, e));
+        }
+        return condition;
+    }
+
+    /**
+     * Generates and defines the condition class for {@code expression}.
+     */
+    private static EventCondition generate(Class<?> eventType, String expression) {
+        if (NativeDetector.inNativeImage()) {
+            // a native image cannot define classes
+            return interpret(eventType, expression);
+        }
+        Node root = parse(eventType, expression);
+        try {
+            Class<?> conditionClass = ClassDefiner.define(eventType, "EventCondition",
+                    className -> generateClass(className, eventType, root));
+            return (EventCondition) conditionClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new EventBusException("Could not compile condition '" + expression + "'", e);
+        }
+    }
+
+    /**
+     * Generates a condition which casts the event and evaluates {@code root} on it.
+     */
+    private static byte[] generateClass(String className, Class<?> eventType, Node root) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        // 定义头信息
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER | ACC_FINAL, className, null,
+                toInternalName(Object.class.getName()), new String[]{CONDITION_NAME});
+
+        {
+            // 构造函数
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(1, 1);
+            mv.visitEnd();
+        }
+
+        {
+            // 定义test方法
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "test", "(Ljava/lang/Object;)Z", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, toInternalName(eventType.getName()));
+            mv.visitVarInsn(ASTORE, EVENT_SLOT);
+            root.emitCondition(mv);
+            mv.visitInsn(IRETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Returns a condition evaluating {@code expression} by walking its syntax tree, calling the accessors through
+     * reflection.
+     */
+    static EventCondition interpret(Class<?> eventType, String expression) {
+        Node root = parse(eventType, expression);
+        return root::evaluateCondition;
+    }
+
+    /**
+     * Static type of an expression on the operand stack.
+     */
+    enum Kind {
+        BOOLEAN, LONG, DOUBLE, REFERENCE;
+
+        boolean numeric() {
+            return this == LONG || this == DOUBLE;
+        }
+    }
+
+    abstract static class Node {
+        abstract Kind kind();
+
+        /**
+         * Pushes the value in its {@link #kind()}.
+         */
+        abstract void emitValue(MethodVisitor mv);
+
+        /**
+         * Returns the value, boxed.
+         */
+        abstract Object evaluate(Object event);
+
+        /**
+         * Returns the value as a condition, like {@link #emitCondition(MethodVisitor)}.
+         */
+        boolean evaluateCondition(Object event) {
+            Object value = evaluate(event);
+            return kind() == Kind.BOOLEAN ? (Boolean) value : EventCondition.isTrue(value);
+        }
+
+        /**
+         * Pushes the value as an int 0 or 1.
+         */
+        void emitCondition(MethodVisitor mv) {
+            switch (kind()) {
+                case BOOLEAN -> emitValue(mv);
+                case REFERENCE -> {
+                    emitValue(mv);
+                    mv.visitMethodInsn(INVOKESTATIC, CONDITION_NAME, "isTrue", "(Ljava/lang/Object;)Z", true);
+                }
+                default -> throw new EventBusException("Condition " + this + " is not a boolean");
+            }
+        }
+
+        /**
+         * Pushes the value boxed.
+         */
+        void emitBoxed(MethodVisitor mv) {
+            emitValue(mv);
+            switch (kind()) {
+                case BOOLEAN -> box(mv, boolean.class);
+                case LONG -> box(mv, long.class);
+                case DOUBLE -> box(mv, double.class);
+                default -> {
+                }
+            }
+        }
+    }
+
+    private static final class Literal extends Node {
+        private final Object value;
+
+        Literal(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        Kind kind() {
+            if (value instanceof Boolean) {
+                return Kind.BOOLEAN;
+            } else if (value instanceof Long) {
+                return Kind.LONG;
+            } else if (value instanceof Double) {
+                return Kind.DOUBLE;
+            }
+            return Kind.REFERENCE;
+        }
+
+        @Override
+        void emitValue(MethodVisitor mv) {
+            if (value == null) {
+                mv.visitInsn(ACONST_NULL);
+            } else if (value instanceof Boolean b) {
+                mv.visitInsn(b ? ICONST_1 : ICONST_0);
+            } else {
+                mv.visitLdcInsn(value);
+            }
+        }
+
+        @Override
+        Object evaluate(Object event) {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return value instanceof String ? "'" + value + "'" : String.valueOf(value);
+        }
+    }
+
+    private static final class Path extends Node {
+        private final List<Method> accessors;
+        private final EventKeyExtractor[] readers;
+
+        Path(List<Method> accessors) {
+            this.accessors = accessors;
+            this.readers = new EventKeyExtractor[accessors.size()];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = EventKeyExtractors.reflective(accessors.get(i));
+            }
+        }
+
+        private Class<?> leafType() {
+            return accessors.get(accessors.size() - 1).getReturnType();
+        }
+
+        @Override
+        Kind kind() {
+            Class<?> type = leafType();
+            if (accessors.size() > 1 || !type.isPrimitive()) {
+                return Kind.REFERENCE;
+            } else if (type == boolean.class) {
+                return Kind.BOOLEAN;
+            } else if (type == float.class || type == double.class) {
+                return Kind.DOUBLE;
+            }
+            return Kind.LONG;
+        }
+
+        @Override
+        void emitValue(MethodVisitor mv) {
+            mv.visitVarInsn(ALOAD, EVENT_SLOT);
+            invoke(mv, accessors.get(0));
+            if (accessors.size() == 1) {
+                Class<?> type = leafType();
+                if (type == float.class) {
+                    mv.visitInsn(F2D);
+                } else if (type.isPrimitive() && type != boolean.class && type != long.class && type != double.class) {
+                    mv.visitInsn(I2L);
+                }
+                return;
+            }
+            // a null intermediate value short-circuits the remaining accessors to null
+            Label done = new Label();
+            Label isNull = new Label();
+            for (int i = 1; i < accessors.size(); i++) {
+                mv.visitInsn(DUP);
+                mv.visitJumpInsn(IFNULL, isNull);
+                invoke(mv, accessors.get(i));
+            }
+            if (leafType().isPrimitive()) {
+                box(mv, leafType());
+            }
+            mv.visitJumpInsn(GOTO, done);
+            mv.visitLabel(isNull);
+            mv.visitInsn(POP);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitLabel(done);
+        }
+
+        @Override
+        Object evaluate(Object event) {
+            Object value = event;
+            for (EventKeyExtractor reader : readers) {
+                if (value == null) {
+                    return null;
+                }
+                value = reader.key(value);
+            }
+            // widened like the I2L of the compiled condition
+            return kind() == Kind.LONG && value instanceof Character c ? (Object) (long) c : value;
+        }
+
+        private static void invoke(MethodVisitor mv, Method accessor) {
+            Class<?> ownerType = accessor.getDeclaringClass();
+            boolean isInterface = ownerType.isInterface();
+            mv.visitMethodInsn(isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL, toInternalName(ownerType.getName()),
+                    accessor.getName(), Type.getMethodDescriptor(accessor), isInterface);
+        }
+
+        @Override
+        public String toString() {
+            List<String> names = new ArrayList<>(accessors.size());
+            for (Method accessor : accessors) {
+                names.add(accessor.getName() + "()");
+            }
+            return String.join(".", names);
+        }
+    }
+
+    private static final class Not extends Node {
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Kind kind() {
+            return Kind.BOOLEAN;
+        }
+
+        @Override
+        void emitValue(MethodVisitor mv) {
+            operand.emitCondition(mv);
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IXOR);
+        }
+
+        @Override
+        Object evaluate(Object event) {
+            return !operand.evaluateCondition(event);
+        }
+
+        @Override
+        public String toString() {
+            return "!" + operand;
+        }
+    }
+
+    private static final class Logical extends Node {
+        private final Node left;
+        private final Node right;
+        private final boolean and;
+
+        Logical(Node left, Node right, boolean and) {
+            this.left = left;
+            this.right = right;
+            this.and = and;
+        }
+
+        @Override
+        Kind kind() {
+            return Kind.BOOLEAN;
+        }
+
+        @Override
+        void emitValue(MethodVisitor mv) {
+            Label shortCircuit = new Label();
+            Label done = new Label();
+            left.emitCondition(mv);
+            mv.visitJumpInsn(and ? IFEQ : IFNE, shortCircuit);
+            right.emitCondition(mv);
+            mv.visitJumpInsn(GOTO, done);
+            mv.visitLabel(shortCircuit);
+            mv.visitInsn(and ? ICONST_0 : ICONST_1);
+            mv.visitLabel(done);
+        }
+
+        @Override
+        Object evaluate(Object event) {
+            return and ? left.evaluateCondition(event) && right.evaluateCondition(event)
+                    : left.evaluateCondition(event) || right.evaluateCondition(event);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + (and ? " && " : " || ") + right + ")";
+        }
+    }
+
+    private static final class Comparison extends Node {
+        private static final String[] OPERATORS = {"==", "!=", "<", "<=", ">", ">="};
+
+        private final Node left;
+        private final Node right;
+        private final int operator;
+
+        Comparison(Node left, Node right, int operator) {
+            this.left = left;
+            this.right = right;
+            this.operator = operator;
+            if ((left.kind() == Kind.BOOLEAN && right.kind().numeric())
+                    || (left.kind().numeric() && right.kind() == Kind.BOOLEAN)
+                    || (left.kind() == Kind.BOOLEAN && right.kind() == Kind.BOOLEAN && operator > EventCondition.NE)) {
+                throw new EventBusException("Cannot compare " + this);
+            }
+        }
+
+        @Override
+        Kind kind() {
+            return Kind.BOOLEAN;
+        }
+
+        @Override
+        void emitValue(MethodVisitor mv) {
+            Kind leftKind = left.kind();
+            Kind rightKind = right.kind();
+            if (leftKind.numeric() && rightKind.numeric()) {
+                if (leftKind == Kind.LONG && rightKind == Kind.LONG) {
+                    left.emitValue(mv);
+                    right.emitValue(mv);
+                    mv.visitInsn(LCMP);
+                } else {
+                    emitDouble(mv, left);
+                    emitDouble(mv, right);
+                    // NaN has to make every comparison false
+                    mv.visitInsn(operator == EventCondition.LT || operator == EventCondition.LE ? DCMPG : DCMPL);
+                }
+                emitBranch(mv, switch (operator) {
+                    case EventCondition.EQ -> IFEQ;
+                    case EventCondition.NE -> IFNE;
+                    case EventCondition.LT -> IFLT;
+                    case EventCondition.LE -> IFLE;
+                    case EventCondition.GT -> IFGT;
+                    default -> IFGE;
+                });
+            } else if (leftKind == Kind.BOOLEAN && rightKind == Kind.BOOLEAN) {
+                left.emitValue(mv);
+                right.emitValue(mv);
+                emitBranch(mv, operator == EventCondition.EQ ? IF_ICMPEQ : IF_ICMPNE);
+            } else {
+                left.emitBoxed(mv);
+                right.emitBoxed(mv);
+                mv.visitIntInsn(BIPUSH, operator);
+                mv.visitMethodInsn(INVOKESTATIC, CONDITION_NAME, "compare",
+                        "(Ljava/lang/Object;Ljava/lang/Object;I)Z", true);
+            }
+        }
+
+        @Override
+        Object evaluate(Object event) {
+            return EventCondition.compare(left.evaluate(event), right.evaluate(event), operator);
+        }
+
+        private static void emitDouble(MethodVisitor mv, Node node) {
+            node.emitValue(mv);
+            if (node.kind() == Kind.LONG) {
+                mv.visitInsn(L2D);
+            }
+        }
+
+        private static void emitBranch(MethodVisitor mv, int opcode) {
+            Label isTrue = new Label();
+            Label done = new Label();
+            mv.visitJumpInsn(opcode, isTrue);
+            mv.visitInsn(ICONST_0);
+            mv.visitJumpInsn(GOTO, done);
+            mv.visitLabel(isTrue);
+            mv.visitInsn(ICONST_1);
+            mv.visitLabel(done);
+        }
+
+        @Override
+        public String toString() {
+            return left + " " + OPERATORS[operator] + " " + right;
+        }
+    }
+
+    private static void box(MethodVisitor mv, Class<?> primitiveType) {
+        Type wrapperType = Type.getType(Primitives.wrap(primitiveType));
+        mv.visitMethodInsn(INVOKESTATIC, wrapperType.getInternalName(), "valueOf",
+                Type.getMethodDescriptor(wrapperType, Type.getType(primitiveType)), false);
+    }
+
+    /**
+     * Recursive descent parser, resolving property paths while parsing.
+     */
+    private static final class Parser {
+        private final Class<?> eventType;
+        private final String expression;
+        private final List<Method> accessors = new ArrayList<>();
+        private int position;
+
+        Parser(Class<?> eventType, String expression) {
+            this.eventType = eventType;
+            this.expression = expression;
+        }
+
+        Node parseExpression() {
+            Node node = parseOr();
+            skipWhitespace();
+            if (position < expression.length()) {
+                throw error("Unexpected '" + expression.charAt(position) + "'");
+            }
+            checkBoolean(node);
+            return node;
+        }
+
+        private Node parseOr() {
+            Node node = parseAnd();
+            while (accept("||")) {
+                checkBoolean(node);
+                Node right = parseAnd();
+                checkBoolean(right);
+                node = new Logical(node, right, false);
+            }
+            return node;
+        }
+
+        private Node parseAnd() {
+            Node node = parseUnary();
+            while (accept("&&")) {
+                checkBoolean(node);
+                Node right = parseUnary();
+                checkBoolean(right);
+                node = new Logical(node, right, true);
+            }
+            return node;
+        }
+
+        private Node parseUnary() {
+            skipWhitespace();
+            if (peek() == '!' && peek(1) != '=') {
+                position++;
+                Node operand = parseUnary();
+                checkBoolean(operand);
+                return new Not(operand);
+            }
+            return parseComparison();
+        }
+
+        private Node parseComparison() {
+            Node left = parseOperand();
+            int operator = parseOperator();
+            if (operator < 0) {
+                return left;
+            }
+            Node right = parseOperand();
+            try {
+                return new Comparison(left, right, operator);
+            } catch (EventBusException e) {
+                throw error(e.getMessage());
+            }
+        }
+
+        private int parseOperator() {
+            // two character operators first
+            String[] operators = {"==", "!=", "<=", ">=", "<", ">"};
+            int[] codes = {EventCondition.EQ, EventCondition.NE, EventCondition.LE, EventCondition.GE,
+                    EventCondition.LT, EventCondition.GT};
+            for (int i = 0; i < operators.length; i++) {
+                if (accept(operators[i])) {
+                    return codes[i];
+                }
+            }
+            return -1;
+        }
+
+        private Node parseOperand() {
+            skipWhitespace();
+            char c = peek();
+            if (c == '(') {
+                position++;
+                Node node = parseOr();
+                if (!accept(")")) {
+                    throw error("Missing ')'");
+                }
+                return node;
+            } else if (c == '\'' || c == '"') {
+                return new Literal(parseString(c));
+            } else if (Character.isDigit(c) || (c == '-' && Character.isDigit(peek(1)))) {
+                return parseNumber();
+            } else if (Character.isJavaIdentifierStart(c)) {
+                return parsePath();
+            }
+            throw error(position < expression.length() ? "Unexpected '" + c + "'" : "Unexpected end");
+        }
+
+        private String parseString(char quote) {
+            StringBuilder text = new StringBuilder();
+            position++;
+            while (position < expression.length()) {
+                char c = expression.charAt(position++);
+                if (c == quote) {
+                    return text.toString();
+                }
+                if (c == '\\' && position < expression.length()) {
+                    c = expression.charAt(position++);
+                }
+                text.append(c);
+            }
+            throw error("Unterminated string");
+        }
+
+        private Node parseNumber() {
+            int start = position++;
+            boolean decimal = false;
+            while (Character.isDigit(peek()) || (peek() == '.' && !decimal && Character.isDigit(peek(1)))) {
+                decimal |= peek() == '.';
+                position++;
+            }
+            String number = expression.substring(start, position);
+            try {
+                return new Literal(decimal ? (Object) Double.valueOf(number) : (Object) Long.valueOf(number));
+            } catch (NumberFormatException e) {
+                throw error("Invalid number " + number);
+            }
+        }
+
+        private Node parsePath() {
+            String first = parseName();
+            switch (first) {
+                case "true":
+                    return new Literal(Boolean.TRUE);
+                case "false":
+                    return new Literal(Boolean.FALSE);
+                case "null":
+                    return new Literal(null);
+                default:
+            }
+            List<Method> accessors = new ArrayList<>();
+            Class<?> type = eventType;
+            String name = first;
+            while (true) {
+                try {
+                    Method accessor = EventKeyExtractors.findAccessor(type, name);
+                    accessors.add(accessor);
+                    this.accessors.add(accessor);
+                    type = accessor.getReturnType();
+                } catch (EventBusException e) {
+                    throw error(e.getMessage());
+                }
+                if (peek() != '.') {
+                    return new Path(accessors);
+                }
+                if (type.isPrimitive()) {
+                    throw error("Cannot navigate into " + type.getName() + " property '" + name + "'");
+                }
+                position++;
+                name = parseName();
+            }
+        }
+
+        private String parseName() {
+            int start = position;
+            if (!Character.isJavaIdentifierStart(peek())) {
+                throw error("Expected a property name");
+            }
+            while (position < expression.length() && Character.isJavaIdentifierPart(peek())) {
+                position++;
+            }
+            return expression.substring(start, position);
+        }
+
+        private void checkBoolean(Node node) {
+            if (node.kind() != Kind.BOOLEAN && node.kind() != Kind.REFERENCE) {
+                throw error("'" + node + "' is not a boolean");
+            }
+        }
+
+        private boolean accept(String token) {
+            skipWhitespace();
+            if (expression.startsWith(token, position)) {
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+        }
+
+        private char peek() {
+            return peek(0);
+        }
+
+        private char peek(int offset) {
+            int index = position + offset;
+            return index < expression.length() ? expression.charAt(index) : '\0';
+        }
+
+        private EventBusException error(String message) {
+            return new EventBusException(String.format("Invalid condition '%s' at %d: %s",
+                    expression, position, message));
+        }
+    }
+}
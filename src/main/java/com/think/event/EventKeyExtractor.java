@@ -0,0 +1,17 @@
+package com.think.event;
+
+/**
+ * 事件键提取接口，由字节码生成，用于读取事件的排序键
+ *
+ * @author veione
+ */
+@FunctionalInterface
+public interface EventKeyExtractor {
+    /**
+     * 提取事件键，基本类型会被装箱
+     *
+     * @param event 事件对象
+     * @return 事件键
+     */
+    Object key(Object event);
+}
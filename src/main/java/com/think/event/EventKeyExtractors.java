@@ -0,0 +1,167 @@
+package com.think.event;
+
+import com.think.event.util.Primitives;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.springframework.core.NativeDetector;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.think.event.util.AsmUtils.toInternalName;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+/**
+ * Resolves event key accessors and generates {@link EventKeyExtractor}s calling them without reflection.
+ * <p>
+ * One extractor is generated per accessor and shared by every subscriber and every bus. It is defined next to the
+ * accessor's declaring class by {@link ClassDefiner}, so it is unloaded together with it.
+ *
+ * @author veione
+ */
+final class EventKeyExtractors {
+    private static final ClassValue<ConcurrentMap<Method, EventKeyExtractor>> EXTRACTORS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Method, EventKeyExtractor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private EventKeyExtractors() {
+    }
+
+    /**
+     * Finds the public no-arg accessor {@code name} on {@code eventType}, also trying the {@code getName} and
+     * {@code isName} bean conventions.
+     *
+     * @throws EventBusException if there is no such accessor
+     */
+    static Method findAccessor(Class<?> eventType, String name) {
+        String capitalized = StringUtils.capitalize(name);
+        for (String candidate : new String[]{name, "get" + capitalized, "is" + capitalized}) {
+            try {
+                Method accessor = eventType.getMethod(candidate);
+                if (accessor.getReturnType() != void.class && !Modifier.isStatic(accessor.getModifiers())
+                        && Modifier.isPublic(accessor.getDeclaringClass().getModifiers())) {
+                    return accessor;
+                }
+            } catch (NoSuchMethodException e) {
+                // try the next naming convention
+            }
+        }
+        throw new EventBusException(String.format("Event type %s has no public no-arg accessor named '%s'",
+                eventType.getName(), name));
+    }
+
+    /**
+     * Returns an extractor calling {@code accessor} on the event through reflection.
+     */
+    static EventKeyExtractor reflective(Method accessor) {
+        return event -> {
+            try {
+                return accessor.invoke(event);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new EventBusException("Accessor " + accessor + " failed", e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new EventBusException("Accessor " + accessor + " is not accessible", e);
+            }
+        };
+    }
+
+    /**
+     * Returns the extractor calling {@code accessor} on the event, generating it on first use.
+     */
+    static EventKeyExtractor get(Method accessor) {
+        ConcurrentMap<Method, EventKeyExtractor> extractors = EXTRACTORS.get(accessor.getDeclaringClass());
+        EventKeyExtractor extractor = extractors.get(accessor);
+        if (extractor == null) {
+            // generating under the map's bin lock keeps concurrent registrations from defining duplicates
+            extractor = extractors.computeIfAbsent(accessor, EventKeyExtractors::generate);
+        }
+        return extractor;
+    }
+
+    /**
+     * Generates and defines an extractor calling {@code accessor} on the event.
+     */
+    private static EventKeyExtractor generate(Method accessor) {
+        if (NativeDetector.inNativeImage()) {
+            // a native image cannot define classes
+            return reflective(accessor);
+        }
+        try {
+            Class<?> extractorClass = ClassDefiner.define(accessor.getDeclaringClass(), "EventKeyExtractor",
+                    className -> generateClass(className, accessor));
+            return (EventKeyExtractor) extractorClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new EventBusException("Could not generate key extractor for " + accessor, e);
+        }
+    }
+
+    /**
+     * Generates an extractor which casts the event and boxes the result of {@code accessor}.
+     */
+    private static byte[] generateClass(String className, Method accessor) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Class<?> ownerType = accessor.getDeclaringClass();
+        String ownerName = toInternalName(ownerType.getName());
+        Class<?> keyType = accessor.getReturnType();
+
+        // 定义头信息
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER | ACC_FINAL, className, null,
+                toInternalName(Object.class.getName()), new String[]{toInternalName(EventKeyExtractor.class.getName())});
+
+        {
+            // 构造函数
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(1, 1);
+            mv.visitEnd();
+        }
+
+        {
+            // 定义key方法
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "key", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, ownerName);
+            boolean isInterface = ownerType.isInterface();
+            mv.visitMethodInsn(isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL, ownerName, accessor.getName(),
+                    Type.getMethodDescriptor(accessor), isInterface);
+            if (keyType.isPrimitive()) {
+                Type wrapperType = Type.getType(Primitives.wrap(keyType));
+                mv.visitMethodInsn(INVOKESTATIC, wrapperType.getInternalName(), "valueOf",
+                        Type.getMethodDescriptor(wrapperType, Type.getType(keyType)), false);
+            }
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(2, 2);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
@@ -0,0 +1,53 @@
+package com.think.event;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Posts events to one {@link EventBus}. The starter exposes a publisher for the default bus and one per named bus, so
+ * components can be injected with the bus they publish to instead of calling {@link EventBus#getDefault()}.
+ *
+ * @author veione
+ */
+public class EventPublisher {
+    private final EventBus eventBus;
+
+    public EventPublisher(EventBus eventBus) {
+        this.eventBus = Objects.requireNonNull(eventBus);
+    }
+
+    /**
+     * @see EventBus#post(Object)
+     */
+    public void publish(Object event) {
+        eventBus.post(event);
+    }
+
+    /**
+     * @see EventBus#postAll(Iterable)
+     */
+    public void publishAll(Iterable<?> events) {
+        eventBus.postAll(events);
+    }
+
+    /**
+     * @see EventBus#postSticky(Object)
+     */
+    public void publishSticky(Object event) {
+        eventBus.postSticky(event);
+    }
+
+    /**
+     * @see EventBus#postAsync(Object)
+     */
+    public CompletableFuture<DeliveryReport> publishAsync(Object event) {
+        return eventBus.postAsync(event);
+    }
+
+    /**
+     * Returns the bus events are posted to.
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+}
@@ -1,30 +1,78 @@
 package com.think.event;
 
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
-class DefaultThreadFactory implements ThreadFactory {
-    private static final AtomicInteger poolNumber = new AtomicInteger(1);
-    private final ThreadGroup group;
-    private final AtomicInteger threadNumber = new AtomicInteger(1);
-    private final String namePrefix;
-    private final String poolPrefix;
-
-    DefaultThreadFactory(String poolPrefix) {
-        this.poolPrefix = poolPrefix;
-        group = Thread.currentThread().getThreadGroup();
-        namePrefix = poolPrefix + "-pool-" + poolNumber.getAndIncrement() + "-thread-";
+/**
+ * Creates the executors of the executor catalog from their {@link EventBusProperties.ExecutorProperties}.
+ *
+ * @author veione
+ */
+final class EventThreadPoolFactory {
+
+    private EventThreadPoolFactory() {
+    }
+
+    static ExecutorService createExecutor(String name, EventBusProperties.ExecutorProperties properties) {
+        return switch (properties.getType()) {
+            case THREAD_POOL -> create(name, properties);
+            case FORK_JOIN -> createForkJoinPool(name, properties.getParallelism(), properties.getThreadPriority());
+        };
+    }
+
+    /**
+     * Creates a work-stealing pool in async mode, whose workers take their local tasks in FIFO order like a regular
+     * executor does. {@link ForkJoinPool#execute(Runnable)} called on one of its workers pushes the task onto that
+     * worker's own deque, so deliveries of events posted by a subscriber stay on the posting worker unless idle workers
+     * steal them, instead of contending on one shared queue.
+     */
+    static ForkJoinPool createForkJoinPool(String name, int parallelism, int threadPriority) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(name + "-fj-thread-" + threadNumber.getAndIncrement());
+            if (thread.getPriority() != threadPriority) {
+                thread.setPriority(threadPriority);
+            }
+            return thread;
+        }, null, true);
+    }
+
+    static ThreadPoolExecutor create(String name, EventBusProperties.ExecutorProperties properties) {
+        int coreSize = properties.getCoreSize();
+        int maxSize = Math.max(coreSize, properties.getMaxSize());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(coreSize, maxSize,
+                properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS,
+                createQueue(properties),
+                new DefaultThreadFactory(name, properties.isDaemon(), properties.getThreadPriority()),
+                createRejectionHandler(properties.getRejectionPolicy()));
+        executor.allowCoreThreadTimeOut(properties.isAllowCoreThreadTimeOut());
+        return executor;
+    }
+
+    private static BlockingQueue<Runnable> createQueue(EventBusProperties.ExecutorProperties properties) {
+        return switch (properties.getQueueType()) {
+            case LINKED -> new LinkedBlockingQueue<>(properties.getQueueCapacity());
+            case ARRAY -> new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            case SYNCHRONOUS -> new SynchronousQueue<>();
+        };
     }
 
-    @Override
-    public Thread newThread(Runnable task) {
-        Thread t = new Thread(group, task, namePrefix + threadNumber.getAndIncrement(), 0);
-        if (t.isDaemon()) {
-            t.setDaemon(false);
-        }
-        if (t.getPriority() != Thread.NORM_PRIORITY) {
-            t.setPriority(Thread.NORM_PRIORITY);
-        }
-        return t;
+    private static RejectedExecutionHandler createRejectionHandler(EventBusProperties.RejectionPolicy policy) {
+        return switch (policy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+        };
     }
 }
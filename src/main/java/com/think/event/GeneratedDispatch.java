@@ -0,0 +1,205 @@
+package com.think.event;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.H_INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SIPUSH;
+import static org.objectweb.asm.Opcodes.V17;
+
+/**
+ * Delivers an event to a fixed snapshot of the subscribers of its class with straight-line code generated for that
+ * snapshot. {@link ThreadMode#POSTING} subscribers without a condition or an own queue are called through constant
+ * method handles bound to their listener, which the JIT can inline into the posting call site instead of going through
+ * the megamorphic {@link SubscriberInvoker#invoke}. All other subscribers are handed the event like by the default
+ * {@link Dispatcher}.
+ * <p>
+ * Generated by {@link SubscriberRegistry.DispatchTable} for event classes that are posted often while their subscribers
+ * do not change, see {@link EventBusBuilder#compileDispatchAfter(int)}.
+ *
+ * @author veione
+ */
+abstract class GeneratedDispatch {
+    private static final Logger logger = LoggerFactory.getLogger(GeneratedDispatch.class);
+
+    /**
+     * Snapshots with more subscribers stay on the generic path, which keeps the generated method well below the
+     * JVM's limit on code size.
+     */
+    static final int MAX_SUBSCRIBERS = 256;
+
+    private static final String SUPER_NAME = Type.getInternalName(GeneratedDispatch.class);
+    private static final String SUBSCRIBER_NAME = Type.getInternalName(Subscriber.class);
+    private static final String SUBSCRIBERS_DESCRIPTOR = Type.getDescriptor(Subscriber[].class);
+    private static final Handle CLASS_DATA_AT = new Handle(H_INVOKESTATIC, "java/lang/invoke/MethodHandles", "classDataAt",
+            "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;I)Ljava/lang/Object;", false);
+
+    /**
+     * The snapshot this dispatch was generated for, in priority order.
+     */
+    final Subscriber[] subscribers;
+
+    GeneratedDispatch(Subscriber[] subscribers) {
+        this.subscribers = subscribers;
+    }
+
+    /**
+     * Delivers {@code event} to every subscriber of the snapshot in priority order.
+     */
+    abstract void dispatch(Object event);
+
+    /**
+     * Generates the dispatch for {@code subscribers} of {@code eventClass}.
+     *
+     * @return the dispatch, {@code null} if none of the subscribers can be called directly or generating it failed
+     */
+    static GeneratedDispatch generate(Class<?> eventClass, Subscriber[] subscribers) {
+        if (subscribers.length > MAX_SUBSCRIBERS) {
+            return null;
+        }
+        List<MethodHandle> handles = new ArrayList<>();
+        int[] handleIndexes = new int[subscribers.length];
+        for (int i = 0; i < subscribers.length; i++) {
+            MethodHandle handle = subscribers[i].isDirect() ? bind(subscribers[i]) : null;
+            handleIndexes[i] = handle != null ? handles.size() : -1;
+            if (handle != null) {
+                handles.add(handle);
+            }
+        }
+        if (handles.isEmpty()) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(generateClass(subscribers, handleIndexes), List.copyOf(handles), true);
+            MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(),
+                    MethodType.methodType(void.class, Subscriber[].class));
+            return (GeneratedDispatch) constructor.invoke(subscribers);
+        } catch (Throwable e) {
+            logger.warn("Could not generate the dispatch of {}, its events are dispatched generically", eventClass, e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns a handle calling the subscriber method on the subscriber's listener, {@code null} if it is inaccessible.
+     */
+    private static MethodHandle bind(Subscriber subscriber) {
+        Method method = subscriber.method.method();
+        try {
+            method.trySetAccessible();
+            return MethodHandles.lookup().unreflect(method)
+                    .bindTo(subscriber.subscriber)
+                    .asType(MethodType.methodType(void.class, Object.class));
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Generates {@code dispatch}, which mirrors the default dispatcher's loop unrolled over {@code subscribers}. A
+     * subscriber with a handle index is called through that constant handle of the class data.
+     */
+    private static byte[] generateClass(Subscriber[] subscribers, int[] handleIndexes) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        // the JVM appends a unique suffix to the name of a hidden class
+        cw.visit(V17, ACC_FINAL | ACC_SUPER, SUPER_NAME + "$$Generated", null, SUPER_NAME, null);
+
+        MethodVisitor init = cw.visitMethod(0, "<init>", "(" + SUBSCRIBERS_DESCRIPTOR + ")V", null, null);
+        init.visitCode();
+        init.visitVarInsn(ALOAD, 0);
+        init.visitVarInsn(ALOAD, 1);
+        init.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "(" + SUBSCRIBERS_DESCRIPTOR + ")V", false);
+        init.visitInsn(RETURN);
+        init.visitMaxs(2, 2);
+        init.visitEnd();
+
+        // locals: 0 this, 1 event, 2 subscribers, 3 caught exception
+        MethodVisitor mv = cw.visitMethod(0, "dispatch", "(Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, SUPER_NAME, "subscribers", SUBSCRIBERS_DESCRIPTOR);
+        mv.visitVarInsn(ASTORE, 2);
+        boolean fusedDispatched = false;
+        for (int i = 0; i < subscribers.length; i++) {
+            if (handleIndexes[i] >= 0) {
+                Label start = new Label();
+                Label end = new Label();
+                Label handler = new Label();
+                Label next = new Label();
+                mv.visitTryCatchBlock(start, end, handler, "java/lang/Exception");
+                mv.visitLabel(start);
+                mv.visitLdcInsn(new ConstantDynamic("_", Type.getDescriptor(MethodHandle.class), CLASS_DATA_AT,
+                        handleIndexes[i]));
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/invoke/MethodHandle", "invokeExact",
+                        "(Ljava/lang/Object;)V", false);
+                mv.visitLabel(end);
+                mv.visitJumpInsn(GOTO, next);
+                mv.visitLabel(handler);
+                mv.visitVarInsn(ASTORE, 3);
+                loadSubscriber(mv, i);
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, SUBSCRIBER_NAME, "handleInvocationException",
+                        "(Ljava/lang/Exception;Ljava/lang/Object;)V", false);
+                mv.visitLabel(next);
+            } else if (!subscribers[i].fused) {
+                loadSubscriber(mv, i);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, SUBSCRIBER_NAME, "postToSubscription", "(Ljava/lang/Object;)V", false);
+            } else if (!fusedDispatched) {
+                // the single task of all fused subscribers is submitted at the position of the first one
+                fusedDispatched = true;
+                loadSubscriber(mv, i);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEVIRTUAL, SUBSCRIBER_NAME, "dispatchFused",
+                        "(Ljava/lang/Object;" + SUBSCRIBERS_DESCRIPTOR + ")V", false);
+            }
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void loadSubscriber(MethodVisitor mv, int index) {
+        mv.visitVarInsn(ALOAD, 2);
+        if (index <= 5) {
+            mv.visitInsn(ICONST_0 + index);
+        } else if (index <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, index);
+        } else {
+            mv.visitIntInsn(SIPUSH, index);
+        }
+        mv.visitInsn(AALOAD);
+    }
+}
@@ -0,0 +1,51 @@
+package com.think.event;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Fixed set of single-threaded lanes for subscribers with an {@link com.think.event.annotation.Subscribe#orderKey()}.
+ * Every delivery is routed to a lane by the hash of its ordering key, so deliveries for the same key run one after
+ * another in posting order, while different keys are spread over all lanes and run in parallel.
+ *
+ * @author veione
+ */
+final class OrderedLanes {
+    private final SubscriberMailbox[] lanes;
+    private final int mask;
+
+    OrderedLanes(int laneCount, Executor executor) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("laneCount must be positive, but was " + laneCount);
+        }
+        int size = Integer.highestOneBit(laneCount - 1) << 1;
+        if (size == 0) {
+            size = 1;
+        }
+        this.lanes = new SubscriberMailbox[size];
+        for (int i = 0; i < size; i++) {
+            lanes[i] = new SubscriberMailbox(executor);
+        }
+        this.mask = size - 1;
+    }
+
+    void dispatch(Subscriber subscriber, Object key, Object event) {
+        laneFor(key).offer(subscriber, event);
+    }
+
+    void dispatch(Object key, Runnable task) {
+        laneFor(key).offer(task);
+    }
+
+    SubscriberMailbox laneFor(Object key) {
+        if (key == null) {
+            return lanes[0];
+        }
+        int hash = key.hashCode();
+        // spreads the higher bits downwards, like HashMap does
+        return lanes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    int size() {
+        return lanes.length;
+    }
+}
@@ -0,0 +1,186 @@
+package com.think.event;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Dispatcher that hands {@link ThreadMode#ASYNC} deliveries to a fixed set of consumer threads through a preallocated
+ * ring of reusable slots, instead of submitting a task to the bus executor for each of them.
+ *
+ * <p>Every slot carries a sequence number. A producer claims the next position by a CAS on the producer cursor once
+ * the slot's sequence says it has been consumed, fills it, and publishes it by advancing the slot's sequence.
+ * Consumers claim published slots the same way on the consumer cursor and release them for the next lap. Neither side
+ * takes a lock or allocates, and any number of threads may post concurrently. When the ring is full, producers wait
+ * using the configured {@link WaitStrategy}, which is also how idle consumers wait for events.
+ *
+ * <p>{@link ThreadMode#POSTING} subscribers are called directly on the posting thread, all other subscribers that need
+ * ordering or a custom executor keep their usual delivery. Events are dispatched immediately, i.e. depth-first. A
+ * consumer posting to a full ring delivers the event itself rather than waiting for the consumers, itself included.
+ *
+ * <p>On {@link #shutdown()} the calling thread delivers the events left in the ring, and producers that publish after
+ * the consumers stopped deliver what they published themselves, so no published event is lost.
+ *
+ * @author veione
+ */
+final class RingBufferDispatcher extends Dispatcher {
+    private final Slot[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final AtomicLong consumerCursor = new AtomicLong();
+    private final Thread[] consumers;
+    private volatile boolean running = true;
+
+    RingBufferDispatcher(int bufferSize, int consumerThreads, WaitStrategy waitStrategy) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2, but was " + bufferSize);
+        }
+        if (consumerThreads <= 0) {
+            throw new IllegalArgumentException("consumerThreads must be positive, but was " + consumerThreads);
+        }
+        this.waitStrategy = requireNonNull(waitStrategy);
+        this.mask = bufferSize - 1;
+        this.slots = new Slot[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            slots[i] = new Slot(i);
+        }
+
+        ThreadFactory threadFactory = new DefaultThreadFactory("EventBusRing", true);
+        this.consumers = new Thread[consumerThreads];
+        for (int i = 0; i < consumerThreads; i++) {
+            consumers[i] = threadFactory.newThread(this::consume);
+            consumers[i].start();
+        }
+    }
+
+    @Override
+    void dispatch(Object event, Subscriber[] subscribers) {
+        requireNonNull(event);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isUnorderedAsync()) {
+                if (subscriber.accepts(event)) {
+                    publish(event, subscriber);
+                }
+            } else {
+                subscriber.postToSubscription(event);
+            }
+        }
+    }
+
+    @Override
+    void shutdown() {
+        running = false;
+        drain();
+    }
+
+    private void publish(Object event, Subscriber subscriber) {
+        if (!running) {
+            subscriber.invokeSubscriber(event);
+            return;
+        }
+        int idle = 0;
+        for (;;) {
+            long position = producerCursor.get();
+            Slot slot = slots[(int) position & mask];
+            long difference = slot.sequence - position;
+            if (difference == 0) {
+                if (producerCursor.compareAndSet(position, position + 1)) {
+                    slot.event = event;
+                    slot.subscriber = subscriber;
+                    // publishes the plain writes above to the consumer that claims this sequence
+                    slot.sequence = position + 1;
+                    if (!running) {
+                        // shut down meanwhile, the consumers and the shutdown drain may have missed this slot
+                        drain();
+                    }
+                    return;
+                }
+            } else if (difference < 0) {
+                // the ring is full
+                if (!running || isConsumer(Thread.currentThread())) {
+                    // nobody is left to drain it, or a consumer would wait for itself: deliver on this thread instead
+                    subscriber.invokeSubscriber(event);
+                    return;
+                }
+                idle = waitStrategy.idle(idle);
+            }
+            // otherwise another producer claimed this position, retry with the next one
+        }
+    }
+
+    private void consume() {
+        int idle = 0;
+        for (;;) {
+            if (consumeNext()) {
+                idle = 0;
+            } else if (!running) {
+                return;
+            } else {
+                idle = waitStrategy.idle(idle);
+            }
+        }
+    }
+
+    /**
+     * Delivers the published events left in the ring on the calling thread.
+     */
+    private void drain() {
+        while (consumeNext()) {
+            // keep delivering until the ring is empty
+        }
+    }
+
+    /**
+     * Claims the next published slot and delivers its event.
+     *
+     * @return false if the ring is empty
+     */
+    private boolean consumeNext() {
+        for (;;) {
+            long position = consumerCursor.get();
+            Slot slot = slots[(int) position & mask];
+            long difference = slot.sequence - (position + 1);
+            if (difference == 0) {
+                if (consumerCursor.compareAndSet(position, position + 1)) {
+                    Object event = slot.event;
+                    Subscriber subscriber = slot.subscriber;
+                    slot.event = null;
+                    slot.subscriber = null;
+                    // hands the slot to the producers of the next lap
+                    slot.sequence = position + slots.length;
+                    try {
+                        subscriber.invokeSubscriber(event);
+                    } catch (Throwable e) {
+                        // an Error must not kill the consumer, the ring would fill up and block every producer
+                        subscriber.handleFailure(e, event);
+                    }
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // otherwise another consumer claimed this position, retry with the next one
+        }
+    }
+
+    private boolean isConsumer(Thread thread) {
+        for (Thread consumer : consumers) {
+            if (consumer == thread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Slot {
+        volatile long sequence;
+        Object event;
+        Subscriber subscriber;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.think.event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Last event of each class posted with {@link EventBus#postSticky(Object)}. Holds at most {@code maxEntries} event
+ * classes and evicts the least recently used one beyond that, and events older than the time to live are dropped when
+ * they are looked up. Only sticky posts and the registration of sticky subscribers touch the cache.
+ *
+ * @author veione
+ */
+final class StickyEventCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    /**
+     * Access ordered, guarded by {@code this}.
+     */
+    private final LinkedHashMap<Class<?>, Entry> events;
+
+    StickyEventCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive, but was " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl == null || ttl.isZero() || ttl.isNegative() ? 0 : ttl.toNanos();
+        this.events = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Class<?>, Entry> eldest) {
+                return size() > StickyEventCache.this.maxEntries;
+            }
+        };
+    }
+
+    synchronized void put(Object event) {
+        events.put(event.getClass(), new Entry(event, System.nanoTime()));
+    }
+
+    synchronized Object get(Class<?> eventClass) {
+        Entry entry = events.get(eventClass);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, System.nanoTime())) {
+            events.remove(eventClass);
+            return null;
+        }
+        return entry.event;
+    }
+
+    /**
+     * Returns the live events whose class is {@code eventType} or, if {@code inherited}, any of its subtypes.
+     */
+    synchronized List<Object> getAssignableTo(Class<?> eventType, boolean inherited) {
+        if (!inherited) {
+            Object event = get(eventType);
+            return event == null ? List.of() : List.of(event);
+        }
+        List<Object> matches = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Iterator<Map.Entry<Class<?>, Entry>> it = events.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Class<?>, Entry> candidate = it.next();
+            if (isExpired(candidate.getValue(), now)) {
+                it.remove();
+            } else if (eventType.isAssignableFrom(candidate.getKey())) {
+                matches.add(candidate.getValue().event);
+            }
+        }
+        return matches;
+    }
+
+    synchronized Object remove(Class<?> eventClass) {
+        Entry entry = events.remove(eventClass);
+        return entry == null ? null : entry.event;
+    }
+
+    synchronized boolean remove(Object event) {
+        Entry entry = events.get(event.getClass());
+        if (entry != null && entry.event.equals(event)) {
+            events.remove(event.getClass());
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void clear() {
+        events.clear();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlNanos > 0 && now - entry.postedAt > ttlNanos;
+    }
+
+    private record Entry(Object event, long postedAt) {
+    }
+}
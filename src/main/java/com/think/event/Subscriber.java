@@ -1,29 +1,11 @@
 package com.think.event;
 
-import org.objectweb.asm.ClassWriter;
-import org.objectweb.asm.MethodVisitor;
-import org.springframework.util.StringUtils;
-
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Executor;
-
-import static com.think.event.util.AsmUtils.toDescriptor;
-import static com.think.event.util.AsmUtils.toInternalName;
-import static org.objectweb.asm.Opcodes.ACC_BRIDGE;
-import static org.objectweb.asm.Opcodes.ACC_FINAL;
-import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
-import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
-import static org.objectweb.asm.Opcodes.ACC_SUPER;
-import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
-import static org.objectweb.asm.Opcodes.ALOAD;
-import static org.objectweb.asm.Opcodes.CHECKCAST;
-import static org.objectweb.asm.Opcodes.GETFIELD;
-import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
-import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
-import static org.objectweb.asm.Opcodes.PUTFIELD;
-import static org.objectweb.asm.Opcodes.RETURN;
-import static org.objectweb.asm.Opcodes.V1_8;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 /**
  * A subscriber method on a specific object, plus the executor that should be used for dispatching
@@ -36,10 +18,20 @@ import static org.objectweb.asm.Opcodes.V1_8;
  */
 class Subscriber {
 
+    /**
+     * Maximum number of events of a batch handed to an asynchronous subscriber in a single executor task.
+     */
+    static final int EVENTS_PER_TASK = 256;
+
     static Subscriber create(EventBus bus, Object listener, SubscriberMethod method) {
         return new Subscriber(bus, listener, method);
     }
 
+    /**
+     * Returned by {@link #extractKey(EventKeyExtractor, Object)} when the key accessor threw.
+     */
+    static final Object NO_KEY = new Object();
+
     /**
      * The event eventBus this subscriber belongs to.
      */
@@ -61,6 +53,39 @@ class Subscriber {
     private final Executor executor;
 
     private final Executor customExecutor;
+
+    /**
+     * Mailbox of a {@link ThreadMode#SERIAL} subscriber.
+     */
+    private final SubscriberMailbox mailbox;
+
+    /**
+     * Own queue of a subscriber with a {@link SubscriberMethod#queueCapacity()}, a
+     * {@link SubscriberMethod#conflationKey()} or a {@link SubscriberMethod#maxBatchSize()}, {@code null} if it has none.
+     */
+    private final SubscriberQueue ownQueue;
+
+    /**
+     * Reads the ordering key of {@link ThreadMode#ASYNC} subscribers with an order key.
+     */
+    private final EventKeyExtractor orderKeyExtractor;
+
+    /**
+     * Limits the concurrent deliveries of a {@link ThreadMode#VIRTUAL} subscriber, {@code null} if unlimited.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Compiled {@link SubscriberMethod#condition()}, evaluated on the posting thread, {@code null} if there is none.
+     */
+    private final EventCondition condition;
+
+    /**
+     * Whether this subscriber is invoked by the single task that delivers an event to all fused subscribers, see
+     * {@link EventBusBuilder#fuseAsyncSubscribers(boolean)}.
+     */
+    final boolean fused;
+
     /**
      * Becomes false as soon as {@link EventBus#unregister(Object)} is called, which is checked by queued event delivery
      * {@link EventBus#invokeSubscriber(PendingPost)} to prevent race conditions.
@@ -68,9 +93,9 @@ class Subscriber {
     volatile boolean active;
 
     /**
-     * Subscriber invoker.
+     * Subscriber invoker, shared with every other instance of the subscriber method's class.
      */
-    private final SubscriberInvoker subscriberInvoker;
+    private final SubscriberInvoker<Object, Object> subscriberInvoker;
 
     private Subscriber(EventBus bus, Object subscriber, SubscriberMethod method) {
         this.bus = bus;
@@ -81,149 +106,394 @@ class Subscriber {
         this.executor = bus.executor();
 
         if (method.threadMode() == ThreadMode.CUSTOM) {
-            this.customExecutor = EventBus.getDefault().getApplicationContext().getBean(method.threadPoolName(), Executor.class);
+            this.customExecutor = bus.executor(method.threadPoolName());
         } else {
             this.customExecutor = null;
         }
+        Executor queueExecutor = method.threadMode() == ThreadMode.CUSTOM ? customExecutor : executor;
+        if (method.queueCapacity() > 0) {
+            this.ownQueue = new BoundedSubscriberQueue(this, queueExecutor, method.queueCapacity(),
+                    method.backpressure(), method.blockTimeoutMillis());
+            this.mailbox = null;
+        } else if (method.conflationKey() != null) {
+            this.ownQueue = new ConflatingSubscriberQueue(this, queueExecutor,
+                    EventKeyExtractors.get(method.conflationKey()));
+            this.mailbox = null;
+        } else if (method.batched()) {
+            this.ownQueue = new BatchingSubscriberQueue(this, queueExecutor, bus.scheduler(), method.maxBatchSize(),
+                    method.maxLatencyMillis());
+            this.mailbox = null;
+        } else {
+            this.ownQueue = null;
+            this.mailbox = method.threadMode() == ThreadMode.SERIAL ? new SubscriberMailbox(executor) : null;
+        }
+        this.orderKeyExtractor = method.orderKey() != null ? EventKeyExtractors.get(method.orderKey()) : null;
+        if (method.threadMode() == ThreadMode.VIRTUAL) {
+            // fail on registration rather than on the first event when virtual threads are missing
+            bus.virtualThreadExecutor();
+        }
+        this.permits = method.maxConcurrency() > 0 ? new Semaphore(method.maxConcurrency()) : null;
+        this.condition = method.condition() != null
+                ? EventConditions.compile(method.eventType(), method.condition()) : null;
+        // a fused task is submitted before the conditions are known, so filtering subscribers get their own tasks
+        this.fused = bus.fusesAsyncSubscribers() && isUnorderedAsync() && !method.parallel() && condition == null;
 
         try {
-            this.subscriberInvoker = createSubscriberInvoker();
-        } catch (Exception e) {
+            this.subscriberInvoker = SubscriberInvokers.get(method.method(), bus.invokerCompileThreshold());
+        } catch (RuntimeException e) {
             throw new IllegalStateException("Enhance subscriber invoke occur exception for " + subscriber.getClass().getName() + ", method " + method.method().getName(), e);
         }
     }
 
-    private <T, E> SubscriberInvoker<T, E> createSubscriberInvoker() throws Exception {
-        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
-
-        Class<?> eventType = method.eventType();
-        String className = String.format("com/think/event/SubscriberInvoker%s%s", eventType.getSimpleName(), method.method().getName());
-        String superName = toInternalName(Object.class.getName());
-        String interfaceName = toInternalName(SubscriberInvoker.class.getName());
-        String targetName = toInternalName(subscriber.getClass().getName());
-        String eventName = toInternalName(eventType.getName());
-        String exceptionName = toInternalName(Exception.class.getName());
-
-        String eventBusDescriptor = toDescriptor(EventBus.class);
-        String targetDescriptor = toDescriptor(subscriber.getClass());
-        String methodDescriptor = toDescriptor(Method.class);
-        String eventDescriptor = toDescriptor(eventType);
-
-        // 定义头信息
-        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER | ACC_FINAL, className,
-                "Ljava/lang/Object;Lcom/think/event/SubscriberInvoker<%s%s>;".formatted(targetDescriptor, eventDescriptor),
-                superName, new String[]{interfaceName});
-
-        {
-            // 字段
-            cw.visitField(ACC_PRIVATE + ACC_FINAL, "bus", eventBusDescriptor, null, null).visitEnd();
-            cw.visitField(ACC_PRIVATE + ACC_FINAL, "target", targetDescriptor, null, null).visitEnd();
-            cw.visitField(ACC_PRIVATE + ACC_FINAL, "method", methodDescriptor, null, null).visitEnd();
+    final void postToSubscription(Object event) {
+        if (!accepts(event)) {
+            return;
         }
+        if (ownQueue != null) {
+            ownQueue.offer(event);
+            return;
+        }
+        switch (method.threadMode()) {
+            case POSTING -> invokeSubscriber(event);
+            case ASYNC -> {
+                if (orderKeyExtractor != null) {
+                    Object key = extractKey(orderKeyExtractor, event);
+                    if (key != NO_KEY) {
+                        bus.orderedLanes().dispatch(this, key, event);
+                    }
+                } else {
+                    dispatchEvent(executor, event);
+                }
+            }
+            case SERIAL -> mailbox.offer(this, event);
+            case VIRTUAL -> dispatchVirtual(() -> invokeSubscriber(event));
+            case CUSTOM -> dispatchEvent(customExecutor, event);
+        }
+    }
 
-        {
-            // 构造函数
-            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(%s%s%s)V".formatted(eventBusDescriptor, targetDescriptor, methodDescriptor), null, null);
-            mv.visitCode();
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitVarInsn(ALOAD, 1);
-            mv.visitFieldInsn(PUTFIELD, className, "bus", eventBusDescriptor);
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitVarInsn(ALOAD, 2);
-            mv.visitFieldInsn(PUTFIELD, className, "target", targetDescriptor);
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitVarInsn(ALOAD, 3);
-            mv.visitFieldInsn(PUTFIELD, className, "method", methodDescriptor);
-            mv.visitInsn(RETURN);
-            mv.visitMaxs(2, 4);
-            mv.visitEnd();
+    /**
+     * Posts {@code event} to this subscriber like {@link #postToSubscription(Object)}, and reports the outcome of the
+     * delivery to {@code tracker} once the subscriber method returned. Subscribers with an own queue are reported as
+     * {@link DeliveryReport.Outcome#QUEUED} right away, events rejected by the condition as
+     * {@link DeliveryReport.Outcome#FILTERED}. Exceptions thrown while handing the event over, e.g. by the order key
+     * accessor, fail the delivery and are handed to the bus unless the executor rejected the event.
+     */
+    final void postTrackedToSubscription(Object event, DeliveryTracker tracker, int index) {
+        Runnable delivery = () -> {
+            long start = System.nanoTime();
+            Throwable failure;
+            try {
+                failure = invokeSubscriberReporting(event);
+            } catch (Throwable e) {
+                // errors still reach the thread running the delivery, but must not leave the report pending forever
+                tracker.complete(index, this, DeliveryReport.Outcome.FAILURE, e, System.nanoTime() - start);
+                throw e;
+            }
+            tracker.complete(index, this, failure == null ? DeliveryReport.Outcome.SUCCESS
+                    : DeliveryReport.Outcome.FAILURE, failure, System.nanoTime() - start);
+        };
+        try {
+            if (!accepts(event)) {
+                tracker.complete(index, this, DeliveryReport.Outcome.FILTERED, null, 0);
+                return;
+            }
+            if (ownQueue != null) {
+                ownQueue.offer(event);
+                tracker.complete(index, this, DeliveryReport.Outcome.QUEUED, null, 0);
+                return;
+            }
+            switch (method.threadMode()) {
+                case POSTING -> delivery.run();
+                case ASYNC -> {
+                    if (orderKeyExtractor != null) {
+                        bus.orderedLanes().dispatch(orderKeyExtractor.key(event), delivery);
+                    } else {
+                        executor.execute(delivery);
+                    }
+                }
+                case SERIAL -> mailbox.offer(delivery);
+                case VIRTUAL -> dispatchVirtual(delivery);
+                case CUSTOM -> customExecutor.execute(delivery);
+            }
+        } catch (RejectedExecutionException e) {
+            tracker.complete(index, this, DeliveryReport.Outcome.FAILURE, e, 0);
+        } catch (RuntimeException e) {
+            handleFailure(e, event);
+            tracker.complete(index, this, DeliveryReport.Outcome.FAILURE, e, 0);
         }
+    }
 
-        String[] exceptions = new String[]{exceptionName};
-
-        {
-            // 定义invoke方法
-            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(%s)V".formatted(eventDescriptor), null, exceptions);
-            mv.visitCode();
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitFieldInsn(GETFIELD, className, "target", targetDescriptor);
-            mv.visitVarInsn(ALOAD, 1);
-            mv.visitMethodInsn(INVOKEVIRTUAL, targetName, method.method().getName(), "(%s)V".formatted(eventDescriptor), false);
-            mv.visitInsn(RETURN);
-            mv.visitMaxs(2, 2);
-            mv.visitEnd();
+    /**
+     * Posts a batch of events of the same class to this subscriber. Asynchronous subscribers receive the batch as a
+     * few executor tasks that each deliver a contiguous run of events in order, instead of one task per event.
+     */
+    final void postAllToSubscription(List<?> events) {
+        if (condition != null) {
+            List<Object> accepted = new ArrayList<>(events.size());
+            for (Object event : events) {
+                if (accepts(event)) {
+                    accepted.add(event);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+            events = accepted;
         }
-        {
-            MethodVisitor methodVisitor = cw.visitMethod(ACC_PUBLIC | ACC_BRIDGE | ACC_SYNTHETIC, "invoke", "(Ljava/lang/Object;)V", null, exceptions);
-            methodVisitor.visitCode();
-            methodVisitor.visitVarInsn(ALOAD, 0);
-            methodVisitor.visitVarInsn(ALOAD, 1);
-            methodVisitor.visitTypeInsn(CHECKCAST, eventName);
-            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, className, "invoke", "(%s)V".formatted(eventDescriptor), false);
-            methodVisitor.visitInsn(RETURN);
-            methodVisitor.visitMaxs(2, 2);
-            methodVisitor.visitEnd();
+        if (ownQueue != null) {
+            for (Object event : events) {
+                ownQueue.offer(event);
+            }
+            return;
         }
+        switch (method.threadMode()) {
+            case POSTING -> {
+                for (Object event : events) {
+                    invokeSubscriber(event);
+                }
+            }
+            case ASYNC -> {
+                if (orderKeyExtractor != null) {
+                    for (Object event : events) {
+                        Object key = extractKey(orderKeyExtractor, event);
+                        if (key != NO_KEY) {
+                            bus.orderedLanes().dispatch(this, key, event);
+                        }
+                    }
+                } else {
+                    dispatchEvents(executor, events);
+                }
+            }
+            case SERIAL -> {
+                for (Object event : events) {
+                    mailbox.offer(this, event);
+                }
+            }
+            case VIRTUAL -> {
+                for (Object event : events) {
+                    dispatchVirtual(() -> invokeSubscriber(event));
+                }
+            }
+            case CUSTOM -> dispatchEvents(customExecutor, events);
+        }
+    }
 
-        {
-            cw.visitEnd();
+    /**
+     * Evaluates the subscriber's condition on the current thread. An exception thrown while evaluating it is handed to
+     * the bus and the event is filtered out.
+     *
+     * @return whether the event should be delivered, always true if the subscriber has no condition
+     */
+    final boolean accepts(Object event) {
+        if (condition == null) {
+            return true;
+        }
+        try {
+            return condition.test(event);
+        } catch (RuntimeException e) {
+            bus.handleSubscriberException(e, context(event));
+            return false;
         }
+    }
 
-        byte[] bytes = cw.toByteArray();
+    /**
+     * Extracts the key of {@code event}. An exception of the key accessor is handed to the bus like one of the
+     * condition, and only this subscriber skips the event.
+     *
+     * @return the key, {@link #NO_KEY} if the key accessor threw
+     */
+    final Object extractKey(EventKeyExtractor extractor, Object event) {
+        try {
+            return extractor.key(event);
+        } catch (RuntimeException e) {
+            bus.handleSubscriberException(e, context(event));
+            return NO_KEY;
+        }
+    }
 
-//        try {
-//            FileOutputStream fos = new FileOutputStream("D:\\Subscriber.class");
-//            fos.write(bytes);
-//            fos.close();
-//            System.out.println("Byte array has been written to file successfully.");
-//        } catch (IOException e) {
-//            e.printStackTrace();
-//        }
+    /**
+     * Returns whether this is an {@link ThreadMode#ASYNC} subscriber whose deliveries are plain, independent executor
+     * tasks, i.e. which may be handed to any thread without further ordering.
+     */
+    final boolean isUnorderedAsync() {
+        return method.threadMode() == ThreadMode.ASYNC && orderKeyExtractor == null && ownQueue == null;
+    }
 
-        Class<?> invokeClass = bus.defineClass(StringUtils.replace(className, "/", "."), bytes);
-        Object invokeInstance = invokeClass.getDeclaredConstructor(EventBus.class, subscriber.getClass(), Method.class).newInstance(bus, subscriber, method.method());
-        return (SubscriberInvoker<T, E>) invokeInstance;
+    /**
+     * Returns the number of events dropped by this subscriber's backpressure policy or replaced by conflation.
+     */
+    final long droppedEvents() {
+        return ownQueue != null ? ownQueue.droppedCount() : 0;
     }
 
-    final void postToSubscription(Object event) {
-        switch (method.threadMode()) {
-            case POSTING -> {
+    /**
+     * Hands an event that was rejected by this subscriber's backpressure policy to the bus.
+     */
+    final void handleRejected(Object event, Exception e) {
+        bus.handleSubscriberException(e, context(event));
+    }
+
+    /**
+     * Dispatches {@code event} to this subscriber using the proper executor.
+     */
+    final void dispatchEvent(Executor executor, Object event) {
+        executor.execute(() -> invokeSubscriber(event));
+    }
+
+    /**
+     * Dispatches {@code event} to this subscriber using the bus executor, unless the subscriber's condition rejects it.
+     */
+    final void dispatchEvent(Object event) {
+        if (accepts(event)) {
+            dispatchEvent(executor, event);
+        }
+    }
+
+    /**
+     * Dispatches {@code event} to every {@link #fused} subscriber in {@code subscribers}, this one included, with a
+     * single task on the bus executor, which invokes them in array order. An error thrown by one subscriber does not
+     * keep the others from receiving the event, it reaches the executor once the task delivered it to all of them.
+     */
+    final void dispatchFused(Object event, Subscriber[] subscribers) {
+        executor.execute(() -> {
+            Error error = invokeFused(event, subscribers, null);
+            if (error != null) {
+                throw error;
+            }
+        });
+    }
+
+    /**
+     * Dispatches {@code events} to every {@link #fused} subscriber in {@code subscribers}, at most
+     * {@link #EVENTS_PER_TASK} events per task. Each task delivers its events one by one to all fused subscribers, and
+     * like {@link #dispatchFused(Object, Subscriber[])} passes errors on only after the last one.
+     */
+    final void dispatchFusedAll(List<?> events, Subscriber[] subscribers) {
+        int size = events.size();
+        for (int from = 0; from < size; from += EVENTS_PER_TASK) {
+            List<?> chunk = events.subList(from, Math.min(size, from + EVENTS_PER_TASK));
+            executor.execute(() -> {
+                Error error = null;
+                for (Object event : chunk) {
+                    error = invokeFused(event, subscribers, error);
+                }
+                if (error != null) {
+                    throw error;
+                }
+            });
+        }
+    }
+
+    /**
+     * Invokes the fused subscribers in {@code subscribers} on {@code event}, each isolated from the errors of the
+     * others as if it ran in a task of its own.
+     *
+     * @param error the first error of the task so far, {@code null} if there was none
+     * @return the first error of the task, with later ones added as suppressed
+     */
+    private static Error invokeFused(Object event, Subscriber[] subscribers, Error error) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.fused) {
                 try {
-                    invokeSubscriberMethod(event);
-                } catch (Exception e) {
-                    Throwable cause = e.getCause();
-                    if (cause == null) {
-                        cause = e;
+                    subscriber.invokeSubscriber(event);
+                } catch (Error e) {
+                    if (error == null) {
+                        error = e;
+                    } else if (error != e) {
+                        error.addSuppressed(e);
                     }
-                    bus.handleSubscriberException(cause, context(event));
                 }
             }
-            case ASYNC -> dispatchEvent(event);
-            case CUSTOM -> dispatchEvent(customExecutor, event);
         }
+        return error;
     }
 
     /**
-     * Dispatches {@code event} to this subscriber using the proper executor.
+     * Runs a delivery to this subscriber on a new virtual thread, which waits for a permit first if the subscriber's
+     * concurrency is limited.
      */
-    final void dispatchEvent(Executor executor, Object event) {
-        executor.execute(
-                () -> {
-                    try {
-                        invokeSubscriberMethod(event);
-                    } catch (Exception e) {
-                        bus.handleSubscriberException(e.getCause(), context(event));
-                    }
-                });
+    private void dispatchVirtual(Runnable delivery) {
+        bus.virtualThreadExecutor().execute(() -> {
+            if (permits == null) {
+                delivery.run();
+                return;
+            }
+            permits.acquireUninterruptibly();
+            try {
+                delivery.run();
+            } finally {
+                permits.release();
+            }
+        });
     }
 
     /**
-     * Dispatches {@code event} to this subscriber using the proper executor.
+     * Dispatches {@code events} to this subscriber using the given executor, at most {@link #EVENTS_PER_TASK} events
+     * per task.
      */
-    final void dispatchEvent(Object event) {
-        dispatchEvent(executor, event);
+    private void dispatchEvents(Executor executor, List<?> events) {
+        int size = events.size();
+        for (int from = 0; from < size; from += EVENTS_PER_TASK) {
+            List<?> chunk = events.subList(from, Math.min(size, from + EVENTS_PER_TASK));
+            executor.execute(() -> {
+                for (Object event : chunk) {
+                    invokeSubscriber(event);
+                }
+            });
+        }
+    }
+
+    /**
+     * Invokes the subscriber method on the current thread and hands any exception to the bus.
+     */
+    final void invokeSubscriber(Object event) {
+        invokeSubscriberReporting(event);
+    }
+
+    /**
+     * Invokes the subscriber method on the current thread and hands any exception to the bus.
+     *
+     * @return the exception, {@code null} if the subscriber method returned normally
+     */
+    private Throwable invokeSubscriberReporting(Object event) {
+        try {
+            invokeSubscriberMethod(event);
+            return null;
+        } catch (Exception e) {
+            return report(e, event);
+        }
+    }
+
+    private Throwable report(Exception e, Object event) {
+        Throwable cause = e.getCause();
+        if (cause == null) {
+            cause = e;
+        }
+        bus.handleSubscriberException(cause, context(event));
+        return cause;
+    }
+
+    /**
+     * Hands {@code failure}, which escaped the delivery of {@code event} to this subscriber, to the bus.
+     */
+    final void handleFailure(Throwable failure, Object event) {
+        bus.handleSubscriberException(failure, context(event));
+    }
+
+    /**
+     * Handles an exception thrown by the subscriber method when it was called by a {@link GeneratedDispatch} like
+     * {@link #invokeSubscriber(Object)} would.
+     */
+    final void handleInvocationException(Exception e, Object event) {
+        report(rethrowable(e, event), event);
+    }
+
+    /**
+     * Returns whether events reach this subscriber by calling its method on the posting thread right away, without
+     * a condition or an own queue in between.
+     */
+    final boolean isDirect() {
+        return method.threadMode() == ThreadMode.POSTING && condition == null && ownQueue == null;
     }
 
     /**
@@ -232,21 +502,27 @@ class Subscriber {
      */
     void invokeSubscriberMethod(Object event) throws Exception {
         try {
-            subscriberInvoker.invoke(event);
-        } catch (IllegalArgumentException e) {
-            throw new Error("Method rejected target/argument: " + event, e);
+            subscriberInvoker.invoke(subscriber, event);
         } catch (Exception e) {
-            if (e.getCause() instanceof IllegalArgumentException) {
-                throw new Error("Method rejected target/argument: " + event, e);
-            }
-            if (e.getCause() instanceof IllegalAccessException) {
-                throw new Error("Method became inaccessible: " + event, e);
-            }
-            if (e.getCause() instanceof Error) {
-                throw (Error) e.getCause();
-            }
-            throw e;
+            throw rethrowable(e, event);
+        }
+    }
+
+    /**
+     * Returns {@code e} unless it signals a broken invocation rather than a failing subscriber, which is thrown as an
+     * {@link Error}.
+     */
+    private static Exception rethrowable(Exception e, Object event) {
+        if (e instanceof IllegalArgumentException || e.getCause() instanceof IllegalArgumentException) {
+            throw new Error("Method rejected target/argument: " + event, e);
+        }
+        if (e.getCause() instanceof IllegalAccessException) {
+            throw new Error("Method became inaccessible: " + event, e);
+        }
+        if (e.getCause() instanceof Error) {
+            throw (Error) e.getCause();
         }
+        return e;
     }
 
     /**
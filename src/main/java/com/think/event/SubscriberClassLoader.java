@@ -11,6 +11,10 @@ public class SubscriberClassLoader extends ClassLoader {
         super(Thread.currentThread().getContextClassLoader());
     }
 
+    public SubscriberClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
     /**
      * 将字节数组转化为Class对象
      *
@@ -0,0 +1,22 @@
+package com.think.event;
+
+/**
+ * Subscriber methods declared by a single class, as recorded by a generated {@link SubscriberInfoIndex}.
+ *
+ * @param subscriberClass the class declaring the methods
+ * @param checkSuperclass whether a superclass declares subscriber methods as well
+ * @param methods         the {@link com.think.event.annotation.Subscribe} methods declared by the class
+ * @author veione
+ */
+public record SubscriberInfo(Class<?> subscriberClass, boolean checkSuperclass, MethodInfo... methods) {
+
+    /**
+     * A subscriber method with its pre-compiled invoker.
+     *
+     * @param methodName    name of the method
+     * @param parameterType erased type of the method's single parameter
+     * @param invoker       calls the method without reflection
+     */
+    public record MethodInfo(String methodName, Class<?> parameterType, SubscriberInvoker<Object, Object> invoker) {
+    }
+}
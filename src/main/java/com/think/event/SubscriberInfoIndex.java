@@ -0,0 +1,33 @@
+package com.think.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 订阅者索引接口，由注解处理器在编译期生成，并通过META-INF/services注册，查找订阅方法时优先使用索引而不是反射扫描
+ *
+ * @author veione
+ */
+public interface SubscriberInfoIndex {
+    /**
+     * 获取订阅者类自身声明的订阅方法
+     *
+     * @param subscriberClass 订阅者类
+     * @return 订阅者信息，未被索引时返回null
+     */
+    SubscriberInfo getSubscriberInfo(Class<?> subscriberClass);
+
+    /**
+     * 由订阅者信息创建索引
+     *
+     * @param infos 订阅者信息
+     * @return 订阅者索引
+     */
+    static SubscriberInfoIndex of(SubscriberInfo... infos) {
+        Map<Class<?>, SubscriberInfo> infosByClass = new HashMap<>(infos.length * 2);
+        for (SubscriberInfo info : infos) {
+            infosByClass.put(info.subscriberClass(), info);
+        }
+        return infosByClass::get;
+    }
+}
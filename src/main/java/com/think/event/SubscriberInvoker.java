@@ -1,7 +1,7 @@
 package com.think.event;
 
 /**
- * 订阅调用接口
+ * 订阅调用接口，同一个订阅方法的所有订阅者实例共享一个调用器
  *
  * @author veione
  */
@@ -10,7 +10,8 @@ public interface SubscriberInvoker<T, E> {
     /**
      * 调用事件
      *
-     * @param event 事件对象
+     * @param target 订阅者对象
+     * @param event  事件对象
      */
-    void invoke(E event) throws Exception;
+    void invoke(T target, E event) throws Exception;
 }
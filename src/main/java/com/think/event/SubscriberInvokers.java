@@ -0,0 +1,235 @@
+package com.think.event;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.springframework.core.NativeDetector;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.think.event.util.AsmUtils.toInternalName;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+/**
+ * Generates one {@link SubscriberInvoker} per subscriber method, shared by every registered instance and every bus.
+ * <p>
+ * The invoker is defined next to the method's declaring class by {@link ClassDefiner}, so it is unloaded together
+ * with it. Invokers generated at build time by {@link com.think.event.processor.SubscriberIndexProcessor} are
+ * {@link #preset preset} instead.
+ * <p>
+ * With a compile threshold, a subscriber method is first called through a {@link MethodHandle} and its invoker is only
+ * generated once the method was called that many times, sparing the class of methods that rarely receive events.
+ *
+ * @author veione
+ */
+final class SubscriberInvokers {
+    private static final ClassValue<DeclaringClassInvokers> INVOKERS = new ClassValue<>() {
+        @Override
+        protected DeclaringClassInvokers computeValue(Class<?> type) {
+            return new DeclaringClassInvokers(type);
+        }
+    };
+
+    private SubscriberInvokers() {
+    }
+
+    /**
+     * Returns the invoker of {@code method}, generating it on first use.
+     */
+    static SubscriberInvoker<Object, Object> get(Method method) {
+        return INVOKERS.get(method.getDeclaringClass()).get(method);
+    }
+
+    /**
+     * Returns the invoker of {@code method}, which calls it through a method handle until it was called
+     * {@code compileThreshold} times unless its invoker was generated already. A threshold of 0 generates the invoker
+     * right away. The threshold of the first call for a method applies to all of its callers.
+     */
+    static SubscriberInvoker<Object, Object> get(Method method, int compileThreshold) {
+        return INVOKERS.get(method.getDeclaringClass()).get(method, compileThreshold);
+    }
+
+    /**
+     * Uses {@code invoker}, generated at build time, for {@code method} unless an invoker was generated already.
+     */
+    static void preset(Method method, SubscriberInvoker<Object, Object> invoker) {
+        INVOKERS.get(method.getDeclaringClass()).invokers.putIfAbsent(method, invoker);
+    }
+
+    /**
+     * Returns an invoker calling {@code method} through reflection.
+     */
+    static SubscriberInvoker<Object, Object> reflective(Method method) {
+        method.trySetAccessible();
+        return (target, event) -> method.invoke(target, event);
+    }
+
+    /**
+     * Invokers of the subscriber methods declared by a single class.
+     */
+    private static final class DeclaringClassInvokers {
+        private final Class<?> declaringClass;
+        private final ConcurrentMap<Method, SubscriberInvoker<Object, Object>> invokers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Method, SubscriberInvoker<Object, Object>> tieredInvokers = new ConcurrentHashMap<>();
+
+        DeclaringClassInvokers(Class<?> declaringClass) {
+            this.declaringClass = declaringClass;
+        }
+
+        SubscriberInvoker<Object, Object> get(Method method) {
+            SubscriberInvoker<Object, Object> invoker = invokers.get(method);
+            if (invoker == null) {
+                // generating under the map's bin lock keeps concurrent registrations from defining duplicates
+                invoker = invokers.computeIfAbsent(method, this::generate);
+            }
+            return invoker;
+        }
+
+        SubscriberInvoker<Object, Object> get(Method method, int compileThreshold) {
+            SubscriberInvoker<Object, Object> invoker = invokers.get(method);
+            if (invoker != null) {
+                return invoker;
+            }
+            if (compileThreshold <= 0 || NativeDetector.inNativeImage()) {
+                return get(method);
+            }
+            return tieredInvokers.computeIfAbsent(method, m -> tiered(m, compileThreshold));
+        }
+
+        private SubscriberInvoker<Object, Object> tiered(Method method, int compileThreshold) {
+            MethodHandle handle;
+            try {
+                method.trySetAccessible();
+                handle = MethodHandles.lookup().unreflect(method)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                return get(method);
+            }
+            return new TieredInvoker(this, method, handle, compileThreshold);
+        }
+
+        @SuppressWarnings("unchecked")
+        private SubscriberInvoker<Object, Object> generate(Method method) {
+            if (NativeDetector.inNativeImage()) {
+                // a native image cannot define classes, methods missing from the AOT index are called reflectively
+                return reflective(method);
+            }
+            try {
+                Class<?> invokerClass = ClassDefiner.define(declaringClass, "SubscriberInvoker",
+                        className -> generateClass(className, method));
+                return (SubscriberInvoker<Object, Object>) invokerClass.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new EventBusException("Could not generate subscriber invoker for " + method, e);
+            }
+        }
+    }
+
+    /**
+     * Calls a subscriber method through a method handle until it was called {@code compileThreshold} times, then
+     * through the generated invoker, which is published to the other threads by a single volatile write.
+     */
+    private static final class TieredInvoker implements SubscriberInvoker<Object, Object> {
+        private final DeclaringClassInvokers owner;
+        private final Method method;
+        private final MethodHandle handle;
+        private final int compileThreshold;
+
+        /**
+         * Calls through the method handle, lost updates of concurrent callers only delay the generation.
+         */
+        private int calls;
+
+        private volatile SubscriberInvoker<Object, Object> compiled;
+
+        TieredInvoker(DeclaringClassInvokers owner, Method method, MethodHandle handle, int compileThreshold) {
+            this.owner = owner;
+            this.method = method;
+            this.handle = handle;
+            this.compileThreshold = compileThreshold;
+        }
+
+        @Override
+        public void invoke(Object target, Object event) throws Exception {
+            SubscriberInvoker<Object, Object> invoker = compiled;
+            if (invoker != null) {
+                invoker.invoke(target, event);
+                return;
+            }
+            if (++calls == compileThreshold) {
+                try {
+                    // also hands the generated invoker to subscribers registered from now on
+                    compiled = owner.get(method);
+                } catch (EventBusException e) {
+                    // keeps calling through the method handle, the count does not reach the threshold again
+                }
+            }
+            try {
+                handle.invokeExact(target, event);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+    }
+
+    /**
+     * Generates an invoker which casts its arguments and calls {@code method} on the target.
+     */
+    private static byte[] generateClass(String className, Method method) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        String targetName = toInternalName(method.getDeclaringClass().getName());
+        // differs from the event type for batching subscribers, which receive a List
+        Class<?> parameterType = method.getParameterTypes()[0];
+
+        // 定义头信息
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER | ACC_FINAL, className, null,
+                toInternalName(Object.class.getName()), new String[]{toInternalName(SubscriberInvoker.class.getName())});
+
+        {
+            // 构造函数
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(1, 1);
+            mv.visitEnd();
+        }
+
+        {
+            // 定义invoke方法，只实现擦除后的签名，因此事件类型为Object时也不会生成重复的桥接方法
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(Ljava/lang/Object;Ljava/lang/Object;)V", null,
+                    new String[]{toInternalName(Exception.class.getName())});
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, targetName);
+            mv.visitVarInsn(ALOAD, 2);
+            if (parameterType != Object.class) {
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(parameterType));
+            }
+            mv.visitMethodInsn(INVOKEVIRTUAL, targetName, method.getName(), Type.getMethodDescriptor(method), false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(2, 3);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
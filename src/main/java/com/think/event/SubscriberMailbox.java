@@ -0,0 +1,84 @@
+package com.think.event;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mailbox of subscriber deliveries that are executed one after another, used by {@link ThreadMode#SERIAL} subscribers
+ * and by the lanes of {@link OrderedLanes}. Deliveries are appended to a lock-free multi-producer single-consumer
+ * linked queue, and the mailbox schedules itself on the executor whenever it holds deliveries and is not already
+ * scheduled. Since at most one pool thread drains it at a time, deliveries run one after another and in the order
+ * they were posted, while different mailboxes are drained in parallel.
+ *
+ * @author veione
+ */
+final class SubscriberMailbox extends AbstractMailbox {
+
+    /**
+     * Last node, swapped by producers.
+     */
+    private final AtomicReference<Node> tail;
+
+    /**
+     * Already consumed stub node, only touched by the draining thread.
+     */
+    private Node head;
+
+    SubscriberMailbox(Executor executor) {
+        super(executor);
+        this.head = new Node(null, null);
+        this.tail = new AtomicReference<>(head);
+    }
+
+    void offer(Subscriber subscriber, Object event) {
+        append(new Node(subscriber, event));
+    }
+
+    /**
+     * Appends a task that runs in turn with the deliveries of this mailbox.
+     */
+    void offer(Runnable task) {
+        append(new Node(null, task));
+    }
+
+    private void append(Node node) {
+        Node previous = tail.getAndSet(node);
+        previous.next = node;
+        schedule();
+    }
+
+    @Override
+    boolean deliverNext() {
+        Node next = head.next;
+        if (next == null) {
+            return false;
+        }
+        Subscriber subscriber = next.subscriber;
+        Object event = next.event;
+        next.subscriber = null;
+        next.event = null;
+        head = next;
+        if (subscriber != null) {
+            subscriber.invokeSubscriber(event);
+        } else {
+            ((Runnable) event).run();
+        }
+        return true;
+    }
+
+    @Override
+    boolean hasPending() {
+        return tail.get() != head;
+    }
+
+    private static final class Node {
+        Subscriber subscriber;
+        Object event;
+        volatile Node next;
+
+        Node(Subscriber subscriber, Object event) {
+            this.subscriber = subscriber;
+            this.event = event;
+        }
+    }
+}
@@ -5,7 +5,31 @@ import java.lang.reflect.Method;
 /**
  * Used internally by EventBus and generated subscriber indexes.
  *
+ * @param sticky         whether the last sticky event is delivered on registration
+ * @param topic          topic pattern the method subscribes to, {@code null} if it subscribes by event class
+ * @param orderKey       accessor of the event's ordering key, {@code null} if deliveries are not ordered by key
+ * @param maxConcurrency maximum number of concurrent deliveries, {@code 0} if unlimited
+ * @param parallel       whether the method always gets an executor task of its own, even when the bus fuses the
+ *                       asynchronous deliveries of an event
+ * @param queueCapacity  capacity of the subscriber's own queue, {@code 0} if it shares the executor's queue
+ * @param backpressure   what happens when the subscriber's own queue is full
+ * @param blockTimeoutMillis how long {@link BackpressurePolicy#BLOCK} waits for free space
+ * @param conflationKey  accessor of the event's conflation key, {@code null} if events are not conflated
+ * @param maxBatchSize   maximum number of events per {@code List} the method receives, {@code 0} if it receives single
+ *                       events; {@code eventType} is the list's element type then
+ * @param maxLatencyMillis how long the first event of a batch waits at most for the batch to fill up
+ * @param condition      expression an event has to satisfy to be delivered, {@code null} if every event is delivered
  * @author veione
  */
-public record SubscriberMethod(Method method, Class<?> eventType, ThreadMode threadMode, int priority, String threadPoolName) {
+public record SubscriberMethod(Method method, Class<?> eventType, ThreadMode threadMode, int priority, String threadPoolName,
+                               boolean sticky, String topic, Method orderKey, int maxConcurrency, boolean parallel, int queueCapacity,
+                               BackpressurePolicy backpressure, long blockTimeoutMillis, Method conflationKey,
+                               int maxBatchSize, long maxLatencyMillis, String condition) {
+
+    /**
+     * Returns whether the method receives its events as a {@code List}.
+     */
+    public boolean batched() {
+        return maxBatchSize > 0;
+    }
 }
\ No newline at end of file
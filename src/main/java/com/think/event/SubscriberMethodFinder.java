@@ -6,11 +6,17 @@ import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 class SubscriberMethodFinder {
     /*
@@ -27,6 +33,16 @@ class SubscriberMethodFinder {
     private static final int POOL_SIZE = 4;
     private static final FindState[] FIND_STATE_POOL = new FindState[POOL_SIZE];
 
+    /**
+     * Indexes generated by the annotation processor, loaded on first use.
+     */
+    private static volatile SubscriberInfoIndex[] subscriberInfoIndexes;
+
+    /**
+     * Indexes added through {@link EventBus#addIndex(SubscriberInfoIndex)}.
+     */
+    private static final List<SubscriberInfoIndex> ADDED_INDEXES = new CopyOnWriteArrayList<>();
+
     List<SubscriberMethod> findSubscriberMethods(Class<?> subscriberClass) {
         List<SubscriberMethod> subscriberMethods = METHOD_CACHE.get(subscriberClass);
         if (subscriberMethods != null) {
@@ -44,6 +60,25 @@ class SubscriberMethodFinder {
     }
 
     private List<SubscriberMethod> findUsingInfo(Class<?> subscriberClass) {
+        FindState findState = prepareFindState();
+        findState.initForSubscriber(subscriberClass);
+        while (findState.clazz != null) {
+            SubscriberInfo subscriberInfo = getSubscriberInfo(findState.clazz);
+            if (subscriberInfo != null) {
+                findUsingIndexInSingleClass(findState, subscriberInfo);
+            } else {
+                findUsingReflectionInSingleClass(findState);
+            }
+            findState.moveToSuperclass();
+        }
+        return getMethodsAndRelease(findState);
+    }
+
+    /**
+     * Finds the subscriber methods through reflection only, bypassing indexes and the cache. Used at build time,
+     * where the result must not depend on indexes generated by a previous build.
+     */
+    List<SubscriberMethod> findUsingReflection(Class<?> subscriberClass) {
         FindState findState = prepareFindState();
         findState.initForSubscriber(subscriberClass);
         while (findState.clazz != null) {
@@ -80,6 +115,61 @@ class SubscriberMethodFinder {
         return new FindState();
     }
 
+    static void addIndex(SubscriberInfoIndex index) {
+        ADDED_INDEXES.add(index);
+    }
+
+    private static SubscriberInfo getSubscriberInfo(Class<?> clazz) {
+        for (SubscriberInfoIndex index : ADDED_INDEXES) {
+            SubscriberInfo info = index.getSubscriberInfo(clazz);
+            if (info != null) {
+                return info;
+            }
+        }
+        SubscriberInfoIndex[] indexes = subscriberInfoIndexes;
+        if (indexes == null) {
+            List<SubscriberInfoIndex> loaded = new ArrayList<>();
+            try {
+                for (SubscriberInfoIndex index : ServiceLoader.load(SubscriberInfoIndex.class)) {
+                    loaded.add(index);
+                }
+            } catch (ServiceConfigurationError e) {
+                throw new EventBusException("Could not load generated subscriber indexes", e);
+            }
+            indexes = loaded.toArray(new SubscriberInfoIndex[0]);
+            subscriberInfoIndexes = indexes;
+        }
+        for (SubscriberInfoIndex index : indexes) {
+            SubscriberInfo info = index.getSubscriberInfo(clazz);
+            if (info != null) {
+                return info;
+            }
+        }
+        return null;
+    }
+
+    private void findUsingIndexInSingleClass(FindState findState, SubscriberInfo subscriberInfo) {
+        for (SubscriberInfo.MethodInfo methodInfo : subscriberInfo.methods()) {
+            Method method;
+            try {
+                method = findState.clazz.getDeclaredMethod(methodInfo.methodName(), methodInfo.parameterType());
+            } catch (NoSuchMethodException e) {
+                throw new EventBusException("Generated subscriber index is out of date, " + findState.clazz.getName()
+                        + " has no method " + methodInfo.methodName() + "(" + methodInfo.parameterType().getName() + ")", e);
+            }
+            Subscribe subscribeAnnotation = method.getAnnotation(Subscribe.class);
+            if (subscribeAnnotation == null) {
+                throw new EventBusException("Generated subscriber index is out of date, " + method
+                        + " has no @Subscribe annotation");
+            }
+            SubscriberInvokers.preset(method, methodInfo.invoker());
+            addSubscriberMethod(findState, method, subscribeAnnotation);
+        }
+        if (!subscriberInfo.checkSuperclass()) {
+            findState.skipSuperClasses = true;
+        }
+    }
+
     private void findUsingReflectionInSingleClass(FindState findState) {
         Method[] methods;
         try {
@@ -103,27 +193,7 @@ class SubscriberMethodFinder {
                 if (parameterTypes.length == 1) {
                     Subscribe subscribeAnnotation = method.getAnnotation(Subscribe.class);
                     if (subscribeAnnotation != null) {
-                        Class<?> eventType = parameterTypes[0];
-                        if (parameterTypes[0].isPrimitive()) {
-                            throw new EventBusException(String.format("@Subscribe method %s's parameter is %s. "
-                                    + "Subscriber methods cannot accept primitives. "
-                                    + "Consider changing the parameter to %s.",
-                                    method,
-                                    parameterTypes[0].getName(),
-                                    Primitives.wrap(parameterTypes[0]).getSimpleName()));
-                        }
-
-                        if (findState.checkAdd(method, eventType)) {
-                            ThreadMode threadMode = subscribeAnnotation.threadMode();
-                            String threadPoolName = subscribeAnnotation.threadPoolName();
-                            if (threadMode == ThreadMode.CUSTOM && !StringUtils.hasText(threadPoolName)) {
-                                throw new IllegalArgumentException(String.format("@Subscribe method %s's thread mode is %s. @Subscriber threadPoolName cannot empty.",
-                                        method, threadMode));
-                            }
-
-                            findState.subscriberMethods.add(new SubscriberMethod(method, eventType, threadMode,
-                                    subscribeAnnotation.priority(), subscribeAnnotation.threadPoolName()));
-                        }
+                        addSubscriberMethod(findState, method, subscribeAnnotation);
                     }
                 } else if (method.isAnnotationPresent(Subscribe.class)) {
                     String methodName = method.getDeclaringClass().getName() + "." + method.getName();
@@ -138,6 +208,143 @@ class SubscriberMethodFinder {
         }
     }
 
+    /**
+     * Validates a {@link Subscribe} method and adds it unless a subclass already overrides it.
+     */
+    private void addSubscriberMethod(FindState findState, Method method, Subscribe subscribeAnnotation) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Class<?> eventType = parameterTypes[0];
+        if (subscribeAnnotation.maxBatchSize() != 0) {
+            eventType = batchElementType(method, subscribeAnnotation);
+        }
+        if (parameterTypes[0].isPrimitive()) {
+            throw new EventBusException(String.format("@Subscribe method %s's parameter is %s. "
+                    + "Subscriber methods cannot accept primitives. "
+                    + "Consider changing the parameter to %s.",
+                    method,
+                    parameterTypes[0].getName(),
+                    Primitives.wrap(parameterTypes[0]).getSimpleName()));
+        }
+
+        if (findState.checkAdd(method, eventType)) {
+            ThreadMode threadMode = subscribeAnnotation.threadMode();
+            String threadPoolName = subscribeAnnotation.threadPoolName();
+            if (threadMode == ThreadMode.CUSTOM && !StringUtils.hasText(threadPoolName)) {
+                throw new IllegalArgumentException(String.format("@Subscribe method %s's thread mode is %s. @Subscriber threadPoolName cannot empty.",
+                        method, threadMode));
+            }
+
+            String topic = null;
+            if (StringUtils.hasText(subscribeAnnotation.topic())) {
+                if (subscribeAnnotation.sticky()) {
+                    throw new EventBusException("@Subscribe method " + method
+                            + " cannot be sticky and subscribe to a topic");
+                }
+                topic = subscribeAnnotation.topic();
+                TopicTrie.validatePattern(topic);
+            }
+
+            Method orderKey = null;
+            if (StringUtils.hasText(subscribeAnnotation.orderKey())) {
+                if (threadMode != ThreadMode.ASYNC) {
+                    throw new EventBusException(String.format("@Subscribe method %s's thread mode is %s. "
+                            + "@Subscribe orderKey requires thread mode ASYNC.", method, threadMode));
+                }
+                orderKey = EventKeyExtractors.findAccessor(eventType, subscribeAnnotation.orderKey());
+            }
+
+            int maxConcurrency = subscribeAnnotation.maxConcurrency();
+            if (maxConcurrency < 0 || (maxConcurrency > 0 && threadMode != ThreadMode.VIRTUAL)) {
+                throw new EventBusException(String.format("@Subscribe method %s's thread mode is %s. "
+                        + "@Subscribe maxConcurrency must not be negative and requires thread mode VIRTUAL.",
+                        method, threadMode));
+            }
+
+            if (subscribeAnnotation.parallel() && threadMode != ThreadMode.ASYNC) {
+                throw new EventBusException(String.format("@Subscribe method %s's thread mode is %s. "
+                        + "@Subscribe parallel requires thread mode ASYNC.", method, threadMode));
+            }
+
+            int queueCapacity = subscribeAnnotation.queueCapacity();
+            if (queueCapacity < 0 || (queueCapacity > 0 && (orderKey != null
+                    || (threadMode != ThreadMode.ASYNC && threadMode != ThreadMode.SERIAL
+                    && threadMode != ThreadMode.CUSTOM)))) {
+                throw new EventBusException(String.format("@Subscribe method %s's thread mode is %s. "
+                        + "@Subscribe queueCapacity must not be negative and requires thread mode "
+                        + "ASYNC without orderKey, SERIAL or CUSTOM.", method, threadMode));
+            }
+            if (subscribeAnnotation.blockTimeoutMillis() < 0) {
+                throw new EventBusException("@Subscribe method " + method
+                        + "'s blockTimeoutMillis must not be negative");
+            }
+
+            Method conflationKey = null;
+            if (StringUtils.hasText(subscribeAnnotation.conflationKey())) {
+                if (orderKey != null || queueCapacity > 0 || (threadMode != ThreadMode.ASYNC
+                        && threadMode != ThreadMode.SERIAL && threadMode != ThreadMode.CUSTOM)) {
+                    throw new EventBusException(String.format("@Subscribe method %s's thread mode is %s. "
+                            + "@Subscribe conflationKey requires thread mode ASYNC, SERIAL or CUSTOM "
+                            + "and excludes orderKey and queueCapacity.", method, threadMode));
+                }
+                conflationKey = EventKeyExtractors.findAccessor(eventType, subscribeAnnotation.conflationKey());
+            }
+
+            int maxBatchSize = subscribeAnnotation.maxBatchSize();
+            if (maxBatchSize > 0 && (orderKey != null || queueCapacity > 0 || conflationKey != null
+                    || (threadMode != ThreadMode.ASYNC && threadMode != ThreadMode.SERIAL
+                    && threadMode != ThreadMode.CUSTOM))) {
+                throw new EventBusException(String.format("@Subscribe method %s's thread mode is %s. "
+                        + "@Subscribe maxBatchSize requires thread mode ASYNC, SERIAL or CUSTOM "
+                        + "and excludes orderKey, queueCapacity and conflationKey.", method, threadMode));
+            }
+
+            String condition = null;
+            if (StringUtils.hasText(subscribeAnnotation.condition())) {
+                condition = subscribeAnnotation.condition();
+                // fail on registration rather than on the first event
+                EventConditions.parse(eventType, condition);
+            }
+
+            findState.subscriberMethods.add(new SubscriberMethod(method, eventType, threadMode,
+                    subscribeAnnotation.priority(), subscribeAnnotation.threadPoolName(),
+                    subscribeAnnotation.sticky(), topic, orderKey,
+                    maxConcurrency, subscribeAnnotation.parallel(), queueCapacity,
+                    subscribeAnnotation.backpressure(),
+                    subscribeAnnotation.blockTimeoutMillis(), conflationKey, maxBatchSize,
+                    subscribeAnnotation.maxLatencyMillis(), condition));
+        }
+    }
+
+    /**
+     * Resolves the element type of a batching subscriber method's {@code List<E>} parameter, which is the type of the
+     * events it subscribes to.
+     */
+    private static Class<?> batchElementType(Method method, Subscribe subscribeAnnotation) {
+        if (subscribeAnnotation.maxBatchSize() < 0 || subscribeAnnotation.maxLatencyMillis() <= 0) {
+            throw new EventBusException("@Subscribe method " + method
+                    + "'s maxBatchSize must not be negative and maxLatencyMillis must be positive");
+        }
+        if (method.getParameterTypes()[0] != List.class) {
+            throw new EventBusException("@Subscribe method " + method
+                    + " has a maxBatchSize, so its parameter must be declared as List<E>");
+        }
+        Type parameterType = method.getGenericParameterTypes()[0];
+        if (parameterType instanceof ParameterizedType parameterizedType) {
+            Type elementType = parameterizedType.getActualTypeArguments()[0];
+            if (elementType instanceof WildcardType wildcardType) {
+                elementType = wildcardType.getUpperBounds()[0];
+            }
+            if (elementType instanceof ParameterizedType parameterizedElementType) {
+                elementType = parameterizedElementType.getRawType();
+            }
+            if (elementType instanceof Class<?> elementClass) {
+                return elementClass;
+            }
+        }
+        throw new EventBusException("@Subscribe method " + method
+                + " has a maxBatchSize, but the element type of its List parameter cannot be resolved");
+    }
+
     static void clearCaches() {
         METHOD_CACHE.clear();
     }
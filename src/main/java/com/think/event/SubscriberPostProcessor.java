@@ -2,41 +2,182 @@ package com.think.event;
 
 import com.think.event.annotation.SubscribeService;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.StringUtils;
 
-import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Subscriber bean post processor.
+ * <p>
+ * With registration threads, the subscriber beans created while the context starts are prepared on a startup pool
+ * and only added to their bus's registry one at a time, in the order the beans were created. All of them are
+ * registered once the singletons are instantiated, before the context is refreshed.
  *
  * @author veione
  */
-public class SubscriberPostProcessor implements BeanPostProcessor, ApplicationListener<ContextClosedEvent>, ApplicationContextAware {
+public class SubscriberPostProcessor implements BeanPostProcessor, SmartInitializingSingleton,
+        ApplicationListener<ContextClosedEvent>, ApplicationContextAware {
+    private final EventBus eventBus;
+    private final int registrationThreads;
+    private ApplicationContext applicationContext;
+
+    /**
+     * Pool preparing the registrations of the subscriber beans, created with the first one and shut down once the
+     * singletons are instantiated.
+     */
+    private ExecutorService registrationExecutor;
+
+    /**
+     * Completes when the last subscriber bean handed to the registration pool is registered.
+     */
+    private CompletableFuture<Void> pendingRegistrations = CompletableFuture.completedFuture(null);
+
+    private boolean singletonsInstantiated;
+
+    public SubscriberPostProcessor() {
+        this(EventBus.getDefault());
+    }
+
+    public SubscriberPostProcessor(EventBus eventBus) {
+        this(eventBus, 0);
+    }
+
+    /**
+     * @param registrationThreads number of threads preparing the registrations of subscriber beans during startup,
+     *                            0 registers each bean on the thread creating it
+     */
+    public SubscriberPostProcessor(EventBus eventBus, int registrationThreads) {
+        this.eventBus = eventBus;
+        this.registrationThreads = registrationThreads;
+    }
+
+    /**
+     * Returns the bean name of the named bus, which is declared under {@code com.think.eventbus.buses.<name>}.
+     */
+    static String eventBusBeanName(String bus) {
+        return bus + "EventBus";
+    }
+
+    /**
+     * Returns the bean name of the publisher of the named bus.
+     */
+    static String eventPublisherBeanName(String bus) {
+        return bus + "EventPublisher";
+    }
 
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
         Class<?> clazz = bean.getClass();
-        Annotation annotation = AnnotationUtils.findAnnotation(clazz, SubscribeService.class);
+        SubscribeService annotation = AnnotationUtils.findAnnotation(clazz, SubscribeService.class);
         if (annotation != null) {
             // register event
-            EventBus.getDefault().register(bean);
+            EventBus bus = getEventBus(annotation.bus());
+            if (registrationThreads > 0 && !singletonsInstantiated) {
+                registerOnStartupPool(bus, bean, beanName);
+            } else {
+                bus.register(bean);
+            }
         }
 
         return bean;
     }
 
+    private synchronized void registerOnStartupPool(EventBus bus, Object bean, String beanName) {
+        if (registrationExecutor == null) {
+            registrationExecutor = Executors.newFixedThreadPool(registrationThreads,
+                    new DefaultThreadFactory("eventbus-registration", true));
+        }
+        try {
+            // executor beans are created here, pool threads must not create singletons while the context starts
+            bus.resolveCustomExecutors(bean);
+        } catch (RuntimeException e) {
+            // the preparation below fails the same way, and reports it once the singletons are instantiated
+        }
+        CompletableFuture<List<Subscriber>> prepared = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bus.prepareRegistration(bean);
+            } catch (RuntimeException e) {
+                throw new EventBusException("Could not register subscriber bean '" + beanName + "'", e);
+            }
+        }, registrationExecutor);
+        // registered in creation order, so that subscribers of equal priority keep the order of synchronous startup
+        pendingRegistrations = pendingRegistrations.thenCombine(prepared, (previous, subscribers) -> {
+            bus.completeRegistration(bean, subscribers);
+            return null;
+        });
+    }
+
+    /**
+     * Waits for the subscriber beans handed to the registration pool, so that all of them are registered before the
+     * context is refreshed.
+     *
+     * @throws EventBusException if a registration failed
+     */
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        singletonsInstantiated = true;
+        if (registrationExecutor == null) {
+            return;
+        }
+        try {
+            pendingRegistrations.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new EventBusException(e.getCause());
+        } finally {
+            registrationExecutor.shutdown();
+            registrationExecutor = null;
+        }
+    }
+
+    /**
+     * Returns the default bus.
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Returns the bus with the given name, the default bus if the name is empty.
+     *
+     * @throws EventBusException if there is no such bus
+     */
+    public EventBus getEventBus(String bus) {
+        if (!StringUtils.hasText(bus)) {
+            return eventBus;
+        }
+        String beanName = eventBusBeanName(bus);
+        if (applicationContext == null || !applicationContext.containsBean(beanName)) {
+            throw new EventBusException("No event bus named '" + bus + "' is configured, declare it under com.think.eventbus.buses");
+        }
+        EventBus namedBus = applicationContext.getBean(beanName, EventBus.class);
+        if (namedBus.getApplicationContext() == null) {
+            namedBus.setApplicationContext(applicationContext);
+        }
+        return namedBus;
+    }
+
     @Override
     public void onApplicationEvent(ContextClosedEvent event) {
-        EventBus.getDefault().shutdown();
+        eventBus.shutdown();
     }
 
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
-        EventBus.getDefault().setApplicationContext(applicationContext);
+        this.applicationContext = applicationContext;
+        eventBus.setApplicationContext(applicationContext);
     }
 }
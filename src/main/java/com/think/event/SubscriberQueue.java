@@ -0,0 +1,28 @@
+package com.think.event;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Own queue of a single subscriber, which replaces handing each event to the executor on its own. The queue is drained
+ * by at most one pool thread at a time, so the subscriber receives its events one after another.
+ *
+ * @author veione
+ */
+abstract class SubscriberQueue extends AbstractMailbox {
+
+    SubscriberQueue(Executor executor) {
+        super(executor);
+    }
+
+    /**
+     * Queues the event for delivery.
+     */
+    abstract void offer(Object event);
+
+    /**
+     * Returns the number of events that were posted but will never be delivered.
+     */
+    long droppedCount() {
+        return 0;
+    }
+}
@@ -1,14 +1,18 @@
 package com.think.event;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Registry of subscribers to a single event eventBus.
@@ -16,14 +20,65 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * @author veione
  */
 final class SubscriberRegistry {
+    static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    /**
+     * Orders subscribers by descending priority, the sort is stable so equal priorities keep their registration order.
+     */
+    private static final Comparator<Subscriber> PRIORITY_ORDER = (s1, s2) -> Integer.compare(s2.method.priority(), s1.method.priority());
+
     private final ConcurrentMap<Class<?>, CopyOnWriteArrayList<Subscriber>> subscribers = new ConcurrentHashMap<>();
     private final Map<Object, List<Class<?>>> typesBySubscriber = new HashMap<>();
-    private static final ConcurrentMap<Class<?>, List<Class<?>>> HIERARCHY_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Type hierarchy of every event class, computed once per class. The values are attached to the {@code Class} itself,
+     * so they go away together with the class loader that defined it.
+     */
+    private static final ClassValue<List<Class<?>>> HIERARCHY_CACHE = new ClassValue<>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> type) {
+            LinkedHashSet<Class<?>> hierarchyClasses = new LinkedHashSet<>();
+            for (Class<?> concreteClass = type; concreteClass != null; concreteClass = concreteClass.getSuperclass()) {
+                hierarchyClasses.add(concreteClass);
+                addInterfaces(hierarchyClasses, concreteClass.getInterfaces());
+            }
+            return List.copyOf(hierarchyClasses);
+        }
+    };
+
+    /**
+     * Pre-merged and priority sorted subscribers by concrete event class. Entries are only written while holding the
+     * registry lock, so readers never observe a table that misses a completed register/unregister.
+     */
+    private final ConcurrentMap<Class<?>, DispatchTable> dispatchTables = new ConcurrentHashMap<>();
+    /**
+     * Maximum number of topics with cached dispatch tables, the cache starts over beyond that so that topics with
+     * unbounded variety, such as ids, cannot exhaust memory.
+     */
+    static final int MAX_CACHED_TOPICS = 4096;
+
+    /**
+     * Subscribers with a {@link SubscriberMethod#topic()}, which are not part of the per-class dispatch tables.
+     */
+    private final TopicTrie topics = new TopicTrie();
+    private final Map<Object, List<Subscriber>> topicSubscribersByListener = new HashMap<>();
+
+    /**
+     * Priority sorted topic subscribers by topic and payload class. Cleared on every change of the topic subscribers.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<Class<?>, Subscriber[]>> topicDispatchTables = new ConcurrentHashMap<>();
+
     private final EventBus bus;
+    private final boolean eventInheritance;
     private final SubscriberMethodFinder subscriberMethodFinder = new SubscriberMethodFinder();
 
     SubscriberRegistry(EventBus bus) {
+        this(bus, true);
+    }
+
+    SubscriberRegistry(EventBus bus, boolean eventInheritance) {
         this.bus = Objects.requireNonNull(bus);
+        this.eventInheritance = eventInheritance;
     }
 
     /**
@@ -32,20 +87,71 @@ final class SubscriberRegistry {
      * @param listener
      */
     void register(Object listener) {
-        Class<?> subscriberClass = listener.getClass();
-        List<SubscriberMethod> subscriberMethods = subscriberMethodFinder.findSubscriberMethods(subscriberClass);
+        publish(listener, prepare(listener));
+    }
+
+    /**
+     * Returns the subscriber methods of {@code listenerClass}.
+     */
+    List<SubscriberMethod> findSubscriberMethods(Class<?> listenerClass) {
+        return subscriberMethodFinder.findSubscriberMethods(listenerClass);
+    }
 
+    /**
+     * Finds the subscriber methods of {@code listener} and creates its subscribers, which generates their invokers,
+     * key extractors and conditions. Touches no registry state, so registrations may be prepared concurrently.
+     */
+    List<Subscriber> prepare(Object listener) {
+        List<SubscriberMethod> subscriberMethods = subscriberMethodFinder.findSubscriberMethods(listener.getClass());
+        List<Subscriber> subscriptions = new ArrayList<>(subscriberMethods.size());
+        for (SubscriberMethod subscriberMethod : subscriberMethods) {
+            subscriptions.add(Subscriber.create(bus, listener, subscriberMethod));
+        }
+        return subscriptions;
+    }
+
+    /**
+     * Adds the subscribers {@link #prepare(Object) prepared} for {@code listener}.
+     */
+    void publish(Object listener, List<Subscriber> subscriptions) {
+        List<Subscriber> stickySubscribers = null;
         synchronized (this) {
-            for (SubscriberMethod subscriberMethod : subscriberMethods) {
-                subscribe(listener, subscriberMethod);
+            for (Subscriber newSubscription : subscriptions) {
+                subscribe(listener, newSubscription);
+                if (newSubscription.method.sticky()) {
+                    if (stickySubscribers == null) {
+                        stickySubscribers = new ArrayList<>();
+                    }
+                    stickySubscribers.add(newSubscription);
+                }
+            }
+            rebuildDispatchTables(typesBySubscriber.get(listener));
+        }
+        if (stickySubscribers != null) {
+            // outside the lock, so that sticky subscribers may register or unregister in turn
+            for (Subscriber stickySubscriber : stickySubscribers) {
+                for (Object stickyEvent : bus.stickyEvents().getAssignableTo(stickySubscriber.method.eventType(), eventInheritance)) {
+                    stickySubscriber.postToSubscription(stickyEvent);
+                }
             }
         }
     }
 
     // Must be called in synchronized block
-    private void subscribe(Object subscriber, SubscriberMethod subscriberMethod) {
+    private void subscribe(Object subscriber, Subscriber newSubscription) {
+        SubscriberMethod subscriberMethod = newSubscription.method;
         Class<?> eventType = subscriberMethod.eventType();
-        Subscriber newSubscription = Subscriber.create(bus, subscriber, subscriberMethod);
+        if (subscriberMethod.topic() != null) {
+            List<Subscriber> topicSubscriptions = topicSubscribersByListener.computeIfAbsent(subscriber, k -> new ArrayList<>());
+            if (topicSubscriptions.contains(newSubscription)) {
+                throw new EventBusException("Subscriber " + subscriber.getClass() + " already registered to topic "
+                        + subscriberMethod.topic());
+            }
+            topicSubscriptions.add(newSubscription);
+            topics.add(subscriberMethod.topic(), newSubscription);
+            topicDispatchTables.clear();
+            return;
+        }
         CopyOnWriteArrayList<Subscriber> subscriptions = subscribers.get(eventType);
         if (subscriptions == null) {
             subscriptions = new CopyOnWriteArrayList<>();
@@ -91,36 +197,210 @@ final class SubscriberRegistry {
      *
      * @param listener
      */
-    void unregister(Object listener) {
-        List<Class<?>> subscribedTypes = typesBySubscriber.get(listener);
+    synchronized void unregister(Object listener) {
+        List<Class<?>> subscribedTypes = typesBySubscriber.remove(listener);
+        List<Subscriber> topicSubscriptions = topicSubscribersByListener.remove(listener);
+        if (subscribedTypes == null && topicSubscriptions == null) {
+            throw new IllegalArgumentException(
+                    "missing event subscriber for an annotated method. Is " + listener + " registered?");
+        }
         if (subscribedTypes != null) {
             for (Class<?> eventType : subscribedTypes) {
                 unsubscribeByEventType(listener, eventType);
             }
-            typesBySubscriber.remove(listener);
-        } else {
-            throw new IllegalArgumentException(
-                    "missing event subscriber for an annotated method. Is " + listener + " registered?");
+            rebuildDispatchTables(subscribedTypes);
+        }
+        if (topicSubscriptions != null) {
+            for (Subscriber subscription : topicSubscriptions) {
+                subscription.active = false;
+                topics.remove(subscription.method.topic(), subscription);
+            }
+            topicDispatchTables.clear();
+        }
+    }
+
+    /**
+     * Gets all subscribers of the given listener object, empty if it is not registered.
+     */
+    synchronized List<Subscriber> getSubscribersOf(Object listener) {
+        List<Subscriber> result = new ArrayList<>(topicSubscribersByListener.getOrDefault(listener, List.of()));
+        List<Class<?>> subscribedTypes = typesBySubscriber.get(listener);
+        if (subscribedTypes != null) {
+            for (Class<?> eventType : new LinkedHashSet<>(subscribedTypes)) {
+                for (Subscriber subscriber : subscribers.get(eventType)) {
+                    if (subscriber.subscriber == listener) {
+                        result.add(subscriber);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets an immutable snapshot of the subscribers to the given topic that accept the payload, ordered by priority.
+     * The returned array is shared and must not be modified.
+     */
+    Subscriber[] getSubscribers(String topic, Object payload) {
+        Class<?> payloadClass = payload.getClass();
+        ConcurrentMap<Class<?>, Subscriber[]> tablesByClass = topicDispatchTables.get(topic);
+        Subscriber[] topicSubscribers = tablesByClass == null ? null : tablesByClass.get(payloadClass);
+        if (topicSubscribers == null) {
+            synchronized (this) {
+                if (topicDispatchTables.size() >= MAX_CACHED_TOPICS) {
+                    topicDispatchTables.clear();
+                }
+                topicSubscribers = topicDispatchTables.computeIfAbsent(topic, k -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(payloadClass, k -> buildTopicDispatchTable(topic, k));
+            }
+        }
+        return topicSubscribers;
+    }
+
+    // Must be called in synchronized block
+    private Subscriber[] buildTopicDispatchTable(String topic, Class<?> payloadClass) {
+        List<Subscriber> matched = new ArrayList<>();
+        for (Subscriber subscriber : topics.match(topic)) {
+            Class<?> eventType = subscriber.method.eventType();
+            if (eventInheritance ? eventType.isAssignableFrom(payloadClass) : eventType == payloadClass) {
+                matched.add(subscriber);
+            }
         }
+        if (matched.isEmpty()) {
+            return NO_SUBSCRIBERS;
+        }
+        Subscriber[] table = matched.toArray(NO_SUBSCRIBERS);
+        Arrays.sort(table, PRIORITY_ORDER);
+        return table;
+    }
+
+    /**
+     * Gets an immutable snapshot of all subscribers to the given event, ordered by priority. The returned array is
+     * shared and must not be modified.
+     */
+    Subscriber[] getSubscribers(Object event) {
+        return getDispatchTable(event).subscribers;
     }
 
     /**
-     * Gets an iterator representing an immutable snapshot of all subscribers to the given event at
-     * the time this method is called.
+     * Gets the dispatch table of the class of the given event.
      */
-    Iterator<Subscriber> getSubscribers(Object event) {
-        List<Class<?>> eventTypes = flattenHierarchy(event.getClass());
+    DispatchTable getDispatchTable(Object event) {
+        Class<?> eventClass = event.getClass();
+        DispatchTable table = dispatchTables.get(eventClass);
+        if (table == null) {
+            synchronized (this) {
+                table = dispatchTables.computeIfAbsent(eventClass, k -> new DispatchTable(k, buildDispatchTable(k), 0));
+            }
+        }
+        return table;
+    }
 
-        List<Subscriber> subscriberIterators = new ArrayList<>(eventTypes.size());
+    /**
+     * Rebuilds the cached dispatch tables of every concrete event class that can receive one of the given event types.
+     */
+    // Must be called in synchronized block
+    private void rebuildDispatchTables(List<Class<?>> changedTypes) {
+        if (changedTypes == null || changedTypes.isEmpty()) {
+            return;
+        }
+        for (DispatchTable table : dispatchTables.values()) {
+            Class<?> eventClass = table.eventClass;
+            for (Class<?> changedType : changedTypes) {
+                if (eventInheritance ? changedType.isAssignableFrom(eventClass) : changedType == eventClass) {
+                    dispatchTables.put(eventClass, new DispatchTable(eventClass, buildDispatchTable(eventClass),
+                            table.generations()));
+                    break;
+                }
+            }
+        }
+    }
 
-        for (Class<?> eventType : eventTypes) {
+    // Must be called in synchronized block
+    private Subscriber[] buildDispatchTable(Class<?> eventClass) {
+        if (!eventInheritance) {
+            // exact type only, the per-type list is already sorted by priority
+            CopyOnWriteArrayList<Subscriber> eventSubscribers = subscribers.get(eventClass);
+            return eventSubscribers == null ? NO_SUBSCRIBERS : eventSubscribers.toArray(NO_SUBSCRIBERS);
+        }
+        List<Subscriber> merged = new ArrayList<>();
+        for (Class<?> eventType : flattenHierarchy(eventClass)) {
             CopyOnWriteArrayList<Subscriber> eventSubscribers = subscribers.get(eventType);
             if (eventSubscribers != null) {
-                subscriberIterators.addAll(eventSubscribers);
+                merged.addAll(eventSubscribers);
+            }
+        }
+        if (merged.isEmpty()) {
+            return NO_SUBSCRIBERS;
+        }
+        Subscriber[] table = merged.toArray(NO_SUBSCRIBERS);
+        Arrays.sort(table, PRIORITY_ORDER);
+        return table;
+    }
+
+    /**
+     * Priority sorted subscribers of a concrete event class, replaced as a whole whenever they change. Once the table
+     * has served {@link EventBus#dispatchCompileThreshold()} posts, a {@link GeneratedDispatch} is generated for it on
+     * the bus's executor, so that the post reaching the threshold does not wait for it, and posts use it once it is
+     * published. Event classes whose subscribers keep changing stay on the generic path: every change starts counting
+     * the posts over, and classes whose dispatch was generated {@link #MAX_GENERATIONS} times are not generated again.
+     */
+    final class DispatchTable {
+        static final int MAX_GENERATIONS = 8;
+
+        private static final AtomicIntegerFieldUpdater<DispatchTable> GENERATION_CLAIMED =
+                AtomicIntegerFieldUpdater.newUpdater(DispatchTable.class, "generationClaimed");
+
+        final Class<?> eventClass;
+        final Subscriber[] subscribers;
+
+        /**
+         * Number of dispatches generated for previous tables of the event class.
+         */
+        private final int generations;
+
+        /**
+         * Posts served so far, lost updates of concurrent posts only delay the generation.
+         */
+        private int posts;
+
+        /**
+         * Set by the single post that gets to generate the dispatch.
+         */
+        private volatile int generationClaimed;
+
+        private volatile GeneratedDispatch generated;
+
+        DispatchTable(Class<?> eventClass, Subscriber[] subscribers, int generations) {
+            this.eventClass = eventClass;
+            this.subscribers = subscribers;
+            this.generations = generations;
+        }
+
+        /**
+         * Counts a post and returns the dispatch generated for this table, {@code null} if there is none (yet).
+         */
+        GeneratedDispatch generatedDispatch() {
+            GeneratedDispatch dispatch = generated;
+            if (dispatch != null) {
+                return dispatch;
+            }
+            int threshold = bus.dispatchCompileThreshold();
+            // stops writing once the threshold is reached, so that posting threads do not contend on the counter
+            if (threshold > 0 && posts < threshold && ++posts >= threshold && generations < MAX_GENERATIONS
+                    && subscribers.length > 0 && GENERATION_CLAIMED.compareAndSet(this, 0, 1)) {
+                try {
+                    bus.executor().execute(() -> generated = GeneratedDispatch.generate(eventClass, subscribers));
+                } catch (RejectedExecutionException e) {
+                    // the bus is shutting down, its events keep being dispatched generically
+                }
             }
+            return null;
         }
 
-        return subscriberIterators.iterator();
+        private int generations() {
+            return generated != null ? generations + 1 : generations;
+        }
     }
 
     /**
@@ -128,16 +408,15 @@ final class SubscriberRegistry {
      * superclasses (transitively) and all interfaces implemented by these superclasses.
      */
     static List<Class<?>> flattenHierarchy(Class<?> clazz) {
-        List<Class<?>> hierarchyClasses = HIERARCHY_CACHE.get(clazz);
-        if (hierarchyClasses == null) {
-            Class<?> concreteClass = clazz;
-            hierarchyClasses = new ArrayList<>(4);
-            while (concreteClass != null) {
-                hierarchyClasses.add(concreteClass);
-                concreteClass = concreteClass.getSuperclass();
+        return HIERARCHY_CACHE.get(clazz);
+    }
+
+    /** Recurses through super interfaces. */
+    private static void addInterfaces(LinkedHashSet<Class<?>> hierarchyClasses, Class<?>[] interfaces) {
+        for (Class<?> interfaceClass : interfaces) {
+            if (hierarchyClasses.add(interfaceClass)) {
+                addInterfaces(hierarchyClasses, interfaceClass.getInterfaces());
             }
-            HIERARCHY_CACHE.put(clazz, hierarchyClasses);
         }
-        return hierarchyClasses;
     }
 }
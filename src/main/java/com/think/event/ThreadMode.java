@@ -21,6 +21,21 @@ public enum ThreadMode {
      * uses a thread pool to efficiently reuse threads from completed asynchronous subscriber notifications.
      */
     ASYNC,
+    /**
+     * Subscriber will be called in a separate thread like {@link #ASYNC}, but never concurrently with itself: each
+     * subscriber owns a mailbox that is drained by at most one pool thread at a time, so it receives events one after
+     * another in posting order. Different subscribers are still called in parallel. Use this instead of synchronizing
+     * an asynchronous subscriber method.
+     */
+    SERIAL,
+    /**
+     * Subscriber will be called in a new virtual thread for every event, requires Java 21 or later at runtime. Use
+     * this for subscribers that block on I/O such as JDBC or HTTP calls: a blocked virtual thread does not hold on to
+     * a pool thread, so blocking subscribers neither exhaust the bus executor nor fall back to the posting thread. Use
+     * {@link com.think.event.annotation.Subscribe#maxConcurrency()} to limit how many deliveries of a subscriber run at
+     * the same time, e.g. to protect a connection pool.
+     */
+    VIRTUAL,
     /**
      * Custom thread pool.
      */
@@ -0,0 +1,115 @@
+package com.think.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of subscribers by topic pattern. Topics are dot separated segments, a pattern segment {@code *} matches
+ * exactly one segment and {@code #} matches zero or more segments. Matching walks the trie segment by segment, so its
+ * cost grows with the depth of the topic and not with the number of subscribers. Not thread-safe, the registry guards
+ * it with its lock.
+ *
+ * @author veione
+ */
+final class TopicTrie {
+    static final String SINGLE_WILDCARD = "*";
+    static final String MULTI_WILDCARD = "#";
+
+    private final Node root = new Node();
+
+    /**
+     * Splits a topic or pattern into its segments.
+     *
+     * @throws EventBusException if the topic is empty or has an empty segment
+     */
+    static String[] segments(String topic) {
+        if (topic.isEmpty() || topic.startsWith(".") || topic.endsWith(".") || topic.contains("..")) {
+            throw new EventBusException("Topic '" + topic + "' must be non-empty segments separated by dots");
+        }
+        return topic.split("\\.");
+    }
+
+    /**
+     * Validates a pattern, wildcards must make up a whole segment.
+     *
+     * @throws EventBusException if the pattern is malformed
+     */
+    static void validatePattern(String pattern) {
+        for (String segment : segments(pattern)) {
+            if (segment.length() > 1 && (segment.contains(SINGLE_WILDCARD) || segment.contains(MULTI_WILDCARD))) {
+                throw new EventBusException("Topic pattern '" + pattern + "' must use wildcards as whole segments");
+            }
+        }
+    }
+
+    void add(String pattern, Subscriber subscriber) {
+        Node node = root;
+        for (String segment : segments(pattern)) {
+            node = node.children.computeIfAbsent(segment, k -> new Node());
+        }
+        node.subscribers.add(subscriber);
+    }
+
+    void remove(String pattern, Subscriber subscriber) {
+        removeFrom(root, segments(pattern), 0, subscriber);
+    }
+
+    private static boolean removeFrom(Node node, String[] segments, int index, Subscriber subscriber) {
+        if (index == segments.length) {
+            node.subscribers.remove(subscriber);
+        } else {
+            Node child = node.children.get(segments[index]);
+            if (child != null && removeFrom(child, segments, index + 1, subscriber)) {
+                node.children.remove(segments[index]);
+            }
+        }
+        // tells the parent to prune this node
+        return node.subscribers.isEmpty() && node.children.isEmpty();
+    }
+
+    /**
+     * Collects the subscribers of every pattern matching the topic, each subscriber once.
+     */
+    Set<Subscriber> match(String topic) {
+        String[] segments = segments(topic);
+        for (String segment : segments) {
+            if (segment.equals(SINGLE_WILDCARD) || segment.equals(MULTI_WILDCARD)) {
+                throw new EventBusException("Topic '" + topic + "' of a posted event must not contain wildcards");
+            }
+        }
+        Set<Subscriber> matches = new LinkedHashSet<>();
+        match(root, segments, 0, matches);
+        return matches;
+    }
+
+    private static void match(Node node, String[] segments, int index, Set<Subscriber> matches) {
+        Node multi = node.children.get(MULTI_WILDCARD);
+        if (multi != null) {
+            // '#' consumes any number of the remaining segments
+            for (int next = index; next <= segments.length; next++) {
+                match(multi, segments, next, matches);
+            }
+        }
+        if (index == segments.length) {
+            matches.addAll(node.subscribers);
+            return;
+        }
+        Node exact = node.children.get(segments[index]);
+        if (exact != null) {
+            match(exact, segments, index + 1, matches);
+        }
+        Node single = node.children.get(SINGLE_WILDCARD);
+        if (single != null) {
+            match(single, segments, index + 1, matches);
+        }
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>(4);
+        final List<Subscriber> subscribers = new ArrayList<>(1);
+    }
+}
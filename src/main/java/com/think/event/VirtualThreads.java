@@ -0,0 +1,64 @@
+package com.think.event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads. The starter is compiled for Java 17, so the Java 21 API is looked up reflectively once
+ * and is only required when a {@link ThreadMode#VIRTUAL} subscriber is registered.
+ *
+ * @author veione
+ */
+final class VirtualThreads {
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle FACTORY;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle factory = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass));
+            name = lookup.findVirtual(ofVirtualClass, "name", MethodType.methodType(ofVirtualClass, String.class, long.class));
+            factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+        } catch (ReflectiveOperationException e) {
+            // running on a JDK without virtual threads
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     *
+     * @throws EventBusException if the running JDK has no virtual threads
+     */
+    static Executor newThreadPerTaskExecutor(String namePrefix) {
+        if (!isSupported()) {
+            throw new EventBusException("ThreadMode.VIRTUAL requires Java 21 or later, running on " + Runtime.version());
+        }
+        ThreadFactory threadFactory;
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(), namePrefix, 0L);
+            threadFactory = (ThreadFactory) FACTORY.invoke(builder);
+        } catch (Throwable e) {
+            throw new EventBusException("Could not create virtual thread factory", e);
+        }
+        return task -> threadFactory.newThread(task).start();
+    }
+}
@@ -0,0 +1,67 @@
+package com.think.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the threads of a ring buffer dispatcher wait for free slots (producers) or new events (consumers).
+ *
+ * @author veione
+ */
+public enum WaitStrategy {
+    /**
+     * Spins on the CPU. Lowest latency, but keeps one core busy per waiting thread, so only use it when the number
+     * of consumer threads is well below the number of cores.
+     */
+    BUSY_SPIN {
+        @Override
+        int idle(int counter) {
+            Thread.onSpinWait();
+            return counter;
+        }
+    },
+    /**
+     * Spins for a while, then yields the CPU to other threads. Good compromise when low latency matters but cores
+     * are shared.
+     */
+    YIELD {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return counter < SPIN_TRIES ? counter + 1 : counter;
+        }
+    },
+    /**
+     * Spins, yields, then parks for short periods. Uses almost no CPU while idle at the cost of some wake up latency.
+     */
+    PARK {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (counter < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            return counter < SPIN_TRIES + YIELD_TRIES ? counter + 1 : counter;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Waits once.
+     *
+     * @param counter number of consecutive times the calling thread found nothing to do, capped once the strategy
+     *                stops changing how it waits, so that it cannot overflow however long the thread stays idle
+     * @return the counter to pass on the next call
+     */
+    abstract int idle(int counter);
+}
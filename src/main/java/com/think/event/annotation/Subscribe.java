@@ -1,5 +1,6 @@
 package com.think.event.annotation;
 
+import com.think.event.BackpressurePolicy;
 import com.think.event.ThreadMode;
 
 import java.lang.annotation.Documented;
@@ -32,4 +33,96 @@ public @interface Subscribe {
      * @return
      */
     int priority() default 0;
+
+    /**
+     * 是否为粘性订阅，为true时注册后会立即收到此前通过postSticky发布的该类型最新事件
+     *
+     * @return
+     */
+    boolean sticky() default false;
+
+    /**
+     * 订阅的主题，由.分隔的多段组成，*匹配一段，#匹配零或多段，例如order.*.created。
+     * 设置主题后订阅方法只接收通过EventBus#post(topic, payload)发布到匹配主题且负载类型匹配的事件，不再接收post(event)发布的事件
+     *
+     * @return
+     */
+    String topic() default "";
+
+    /**
+     * 排序键，事件上返回排序键的无参公共访问方法名称(也支持getXxx/isXxx形式)，仅适用于ASYNC线程模式。
+     * 排序键相同的事件会按照发布顺序逐个处理，排序键不同的事件则会在多个线程上并行处理
+     *
+     * @return
+     */
+    String orderKey() default "";
+
+    /**
+     * 最大并发数，限制该订阅方法同时执行的事件数量，默认0表示不限制，仅适用于VIRTUAL线程模式
+     *
+     * @return
+     */
+    int maxConcurrency() default 0;
+
+    /**
+     * 是否始终单独提交任务，仅适用于ASYNC线程模式。开启fuseAsyncSubscribers后同一事件的ASYNC订阅方法会在同一个任务中按优先级依次执行，
+     * 需要与其他订阅方法并行执行的订阅方法可设置为true
+     *
+     * @return
+     */
+    boolean parallel() default false;
+
+    /**
+     * 订阅方法独享的有界队列容量，默认0表示直接使用线程池的队列，适用于ASYNC、SERIAL和CUSTOM线程模式。
+     * 拥有独享队列的订阅方法会逐个按顺序处理事件，处理缓慢时只会填满自己的队列，而不会占满线程池影响其他订阅方法
+     *
+     * @return
+     */
+    int queueCapacity() default 0;
+
+    /**
+     * 独享队列已满时的背压策略，默认BLOCK
+     *
+     * @return
+     */
+    BackpressurePolicy backpressure() default BackpressurePolicy.BLOCK;
+
+    /**
+     * BLOCK背压策略下发布线程等待队列空闲的最长时间(毫秒)，超时后丢弃事件
+     *
+     * @return
+     */
+    long blockTimeoutMillis() default 1000;
+
+    /**
+     * 合并键，事件上返回合并键的无参公共访问方法名称(也支持getXxx/isXxx形式)，适用于ASYNC、SERIAL和CUSTOM线程模式。
+     * 每个合并键最多只保留一个待处理的事件，新事件会原地替换尚未处理的旧事件，订阅方法按顺序逐个处理事件，只会收到每个合并键最新的事件
+     *
+     * @return
+     */
+    String conflationKey() default "";
+
+    /**
+     * 批量大小，大于0时订阅方法的参数需声明为{@code List<事件类型>}，事件会先累积起来再成批交给订阅方法，
+     * 批次达到该数量或者等待达到maxLatencyMillis时投递，适用于ASYNC、SERIAL和CUSTOM线程模式，默认0表示逐个处理事件
+     *
+     * @return
+     */
+    int maxBatchSize() default 0;
+
+    /**
+     * 批次中第一个事件的最长等待时间(毫秒)，超时后即使批次未满也会投递
+     *
+     * @return
+     */
+    long maxLatencyMillis() default 100;
+
+    /**
+     * 过滤条件，只有满足条件的事件才会投递给订阅方法。条件由事件属性(无参公共访问方法，也支持getXxx/isXxx形式及a.b形式的嵌套属性)、
+     * 字面量(数字、'字符串'、true、false、null)、比较运算符(== != < <= > >=)以及逻辑运算符(&& || !)组成，例如 {@code amount > 100 && !test}。
+     * 条件会在注册时编译成字节码，并在发布线程上提交到线程池之前求值，被过滤掉的事件不会占用线程池
+     *
+     * @return
+     */
+    String condition() default "";
 }
@@ -10,4 +10,10 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 @Documented
 public @interface SubscribeService {
+    /**
+     * 订阅的事件总线名称，对应配置com.think.eventbus.buses下的名称，默认为空表示默认事件总线
+     *
+     * @return
+     */
+    String bus() default "";
 }
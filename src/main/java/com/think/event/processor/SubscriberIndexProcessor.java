@@ -0,0 +1,252 @@
+package com.think.event.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 订阅者索引注解处理器，编译期为@Subscribe方法生成{@code com.think.event.SubscriberInfoIndex}实现及调用器，
+ * 并注册到META-INF/services，运行时查找订阅方法不再需要反射扫描，也不再需要运行时生成字节码。
+ * <p>
+ * 通过编译参数{@code -Aeventbus.index=com.example.MySubscriberIndex}指定索引类名，默认在订阅者所在的包中生成
+ * EventBusSubscriberIndex_&lt;订阅者类名的哈希&gt;，共享包名的多个模块不会生成同名的索引类。
+ * 无法在索引中直接调用的订阅者(非public类、局部类等)会被跳过，运行时仍通过反射查找。
+ *
+ * @author veione
+ */
+@SupportedAnnotationTypes(SubscriberIndexProcessor.SUBSCRIBE)
+@SupportedOptions(SubscriberIndexProcessor.OPTION_INDEX)
+public class SubscriberIndexProcessor extends AbstractProcessor {
+    static final String SUBSCRIBE = "com.think.event.annotation.Subscribe";
+    static final String OPTION_INDEX = "eventbus.index";
+
+    private static final String INDEX_SIMPLE_NAME = "EventBusSubscriberIndex";
+    private static final String INDEX_INTERFACE = "com.think.event.SubscriberInfoIndex";
+
+    /**
+     * Subscriber methods by declaring class, in source order.
+     */
+    private final Map<TypeElement, List<ExecutableElement>> methodsByClass = new LinkedHashMap<>();
+    private boolean written;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Messager messager = processingEnv.getMessager();
+        TypeElement subscribe = processingEnv.getElementUtils().getTypeElement(SUBSCRIBE);
+        if (subscribe == null || annotations.isEmpty()) {
+            return false;
+        }
+        if (written) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Subscriber index was already written, "
+                    + "@Subscribe methods generated by later processing rounds are found by reflection");
+            return false;
+        }
+        collect(roundEnv.getElementsAnnotatedWith(subscribe));
+        if (methodsByClass.isEmpty()) {
+            return false;
+        }
+        // later rounds only see sources generated by other processors, so the index is complete now
+        written = true;
+        String indexName = processingEnv.getOptions().get(OPTION_INDEX);
+        if (indexName == null || indexName.isBlank()) {
+            indexName = defaultIndexName();
+        }
+        try {
+            writeIndex(indexName);
+            writeServiceFile(indexName);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write subscriber index " + indexName + ": " + e);
+        }
+        return false;
+    }
+
+    private void collect(Set<? extends Element> annotatedElements) {
+        Map<TypeElement, List<ExecutableElement>> collected = new LinkedHashMap<>();
+        for (Element element : annotatedElements) {
+            if (element.getKind() == ElementKind.METHOD) {
+                collected.computeIfAbsent((TypeElement) element.getEnclosingElement(), type -> new ArrayList<>())
+                        .add((ExecutableElement) element);
+            }
+        }
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : collected.entrySet()) {
+            String reason = unindexableReason(entry.getKey(), entry.getValue());
+            if (reason == null) {
+                methodsByClass.put(entry.getKey(), entry.getValue());
+            } else {
+                // the registration reports invalid subscriber methods with the same message as without an index
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "Subscriber " + entry.getKey().getQualifiedName() + " is not indexed: " + reason, entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Returns why the subscriber methods of {@code type} cannot be called from the generated index, {@code null} if
+     * they can.
+     */
+    private String unindexableReason(TypeElement type, List<ExecutableElement> methods) {
+        if (type.getKind() != ElementKind.CLASS || !isAccessible(type)) {
+            return "it is not a public top-level or public static nested class";
+        }
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror exception = processingEnv.getElementUtils().getTypeElement("java.lang.Exception").asType();
+        TypeMirror error = processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType();
+        for (ExecutableElement method : methods) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)
+                    || modifiers.contains(Modifier.ABSTRACT) || method.getParameters().size() != 1) {
+                return method.getSimpleName() + " must be public, non-static, non-abstract and have 1 parameter";
+            }
+            TypeMirror parameterType = types.erasure(method.getParameters().get(0).asType());
+            if (parameterType.getKind().isPrimitive() || !isAccessible(parameterType)) {
+                return method.getSimpleName() + "'s parameter type is not a public reference type";
+            }
+            for (TypeMirror thrown : method.getThrownTypes()) {
+                if (!types.isAssignable(thrown, exception) && !types.isAssignable(thrown, error)) {
+                    return method.getSimpleName() + " throws " + thrown;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isAccessible(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            TypeMirror componentType = ((ArrayType) type).getComponentType();
+            return componentType.getKind().isPrimitive() || isAccessible(componentType);
+        }
+        return type.getKind() == TypeKind.DECLARED
+                && isAccessible((TypeElement) ((DeclaredType) type).asElement());
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+        Element element = type;
+        while (element instanceof TypeElement typeElement) {
+            if (!typeElement.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            if (typeElement.getNestingKind() == NestingKind.MEMBER) {
+                if (!typeElement.getModifiers().contains(Modifier.STATIC) && typeElement.getKind() == ElementKind.CLASS) {
+                    return false;
+                }
+            } else if (typeElement.getNestingKind() != NestingKind.TOP_LEVEL) {
+                return false;
+            }
+            element = typeElement.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a superclass outside the JDK declares {@code @Subscribe} methods, which the registration has to
+     * look up as well.
+     */
+    private boolean superclassHasSubscribers(TypeElement type) {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror superclass = type.getSuperclass();
+        while (superclass.getKind() == TypeKind.DECLARED) {
+            TypeElement superType = (TypeElement) types.asElement(superclass);
+            String name = superType.getQualifiedName().toString();
+            if (name.startsWith("java.") || name.startsWith("javax.")) {
+                return false;
+            }
+            for (Element member : superType.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.METHOD && hasSubscribe(member)) {
+                    return true;
+                }
+            }
+            superclass = superType.getSuperclass();
+        }
+        return false;
+    }
+
+    private static boolean hasSubscribe(Element element) {
+        return element.getAnnotationMirrors().stream()
+                .anyMatch(mirror -> ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                        .contentEquals(SUBSCRIBE));
+    }
+
+    /**
+     * Returns {@code <package>.EventBusSubscriberIndex_<hash>}, where the package is the first of the subscribers'
+     * packages and the hash is taken over the names of the indexed subscribers, so that modules sharing a package do
+     * not generate the same class and shadow each other's index.
+     */
+    private String defaultIndexName() {
+        String packageName = null;
+        List<String> subscriberNames = new ArrayList<>();
+        for (TypeElement type : methodsByClass.keySet()) {
+            PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+            String candidate = packageElement.getQualifiedName().toString();
+            if (packageName == null || candidate.compareTo(packageName) < 0) {
+                packageName = candidate;
+            }
+            subscriberNames.add(type.getQualifiedName().toString());
+        }
+        Collections.sort(subscriberNames);
+        UUID hash = UUID.nameUUIDFromBytes(String.join("\n", subscriberNames).getBytes(StandardCharsets.UTF_8));
+        String simpleName = String.format("%s_%016x", INDEX_SIMPLE_NAME, hash.getMostSignificantBits());
+        return packageName == null || packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    private void writeIndex(String indexName) throws IOException {
+        Types types = processingEnv.getTypeUtils();
+        List<SubscriberIndexWriter.IndexedSubscriber> subscribers = new ArrayList<>();
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : methodsByClass.entrySet()) {
+            List<SubscriberIndexWriter.IndexedMethod> methods = new ArrayList<>();
+            for (ExecutableElement method : entry.getValue()) {
+                methods.add(new SubscriberIndexWriter.IndexedMethod(method.getSimpleName().toString(),
+                        types.erasure(method.getParameters().get(0).asType()).toString()));
+            }
+            subscribers.add(new SubscriberIndexWriter.IndexedSubscriber(entry.getKey().getQualifiedName().toString(),
+                    superclassHasSubscribers(entry.getKey()), methods));
+        }
+
+        Element[] originatingElements = methodsByClass.keySet().toArray(new Element[0]);
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(indexName, originatingElements);
+        try (Writer writer = sourceFile.openWriter()) {
+            writer.write(SubscriberIndexWriter.write(indexName, getClass().getName(), subscribers));
+        }
+    }
+
+    private void writeServiceFile(String indexName) throws IOException {
+        FileObject serviceFile = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                "META-INF/services/" + INDEX_INTERFACE, methodsByClass.keySet().toArray(new Element[0]));
+        try (Writer writer = serviceFile.openWriter()) {
+            writer.write(indexName + "\n");
+        }
+    }
+}
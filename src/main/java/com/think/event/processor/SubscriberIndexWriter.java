@@ -0,0 +1,110 @@
+package com.think.event.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 订阅者索引源码生成器，生成{@code com.think.event.SubscriberInfoIndex}实现及直接调用订阅方法的调用器。
+ * <p>
+ * 由{@link SubscriberIndexProcessor}在编译期和Spring AOT处理时共同使用，两者生成的索引及调用器结构保持一致。
+ *
+ * @author veione
+ */
+public final class SubscriberIndexWriter {
+
+    private SubscriberIndexWriter() {
+    }
+
+    /**
+     * A subscriber method to index.
+     *
+     * @param name          name of the method
+     * @param parameterType canonical name of the erased parameter type
+     */
+    public record IndexedMethod(String name, String parameterType) {
+    }
+
+    /**
+     * The subscriber methods a class declares.
+     *
+     * @param className       canonical name of the class
+     * @param checkSuperclass whether a superclass declares subscriber methods as well
+     * @param methods         the methods the class declares, in a stable order
+     */
+    public record IndexedSubscriber(String className, boolean checkSuperclass, List<IndexedMethod> methods) {
+    }
+
+    /**
+     * Returns the source of the index class {@code indexName}, which must be in a package whose code can call the
+     * subscriber methods.
+     *
+     * @param indexName   fully qualified name of the index class
+     * @param generator   name of the generating class, recorded in the generated code
+     * @param subscribers the subscribers to index
+     */
+    public static String write(String indexName, String generator, List<IndexedSubscriber> subscribers) {
+        int lastDot = indexName.lastIndexOf('.');
+        String packageName = lastDot > 0 ? indexName.substring(0, lastDot) : null;
+        String simpleName = indexName.substring(lastDot + 1);
+
+        List<String> invocations = new ArrayList<>();
+        StringBuilder entries = new StringBuilder();
+        for (IndexedSubscriber subscriber : subscribers) {
+            entries.append("        put(new SubscriberInfo(").append(subscriber.className()).append(".class, ")
+                    .append(subscriber.checkSuperclass());
+            for (IndexedMethod method : subscriber.methods()) {
+                entries.append(",\n                new SubscriberInfo.MethodInfo(\"").append(method.name())
+                        .append("\", ").append(method.parameterType()).append(".class, new Invoker(")
+                        .append(invocations.size()).append("))");
+                invocations.add("((" + subscriber.className() + ") target)." + method.name()
+                        + "((" + method.parameterType() + ") event)");
+            }
+            entries.append("));\n");
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (packageName != null) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.think.event.SubscriberInfo;\n");
+        source.append("import com.think.event.SubscriberInfoIndex;\n");
+        source.append("import com.think.event.SubscriberInvoker;\n\n");
+        source.append("import java.util.HashMap;\n");
+        source.append("import java.util.Map;\n\n");
+        source.append("/**\n * Generated by {@code ").append(generator).append("}, do not edit.\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(generator).append("\")\n");
+        source.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+        source.append("public final class ").append(simpleName).append(" implements SubscriberInfoIndex {\n");
+        source.append("    private static final Map<Class<?>, SubscriberInfo> SUBSCRIBERS = new HashMap<>();\n\n");
+        source.append("    static {\n");
+        source.append(entries);
+        source.append("    }\n\n");
+        source.append("    private static void put(SubscriberInfo info) {\n");
+        source.append("        SUBSCRIBERS.put(info.subscriberClass(), info);\n");
+        source.append("    }\n\n");
+        source.append("    @Override\n");
+        source.append("    public SubscriberInfo getSubscriberInfo(Class<?> subscriberClass) {\n");
+        source.append("        return SUBSCRIBERS.get(subscriberClass);\n");
+        source.append("    }\n\n");
+        source.append("    private static final class Invoker implements SubscriberInvoker<Object, Object> {\n");
+        source.append("        private final int id;\n\n");
+        source.append("        Invoker(int id) {\n");
+        source.append("            this.id = id;\n");
+        source.append("        }\n\n");
+        source.append("        @Override\n");
+        source.append("        public void invoke(Object target, Object event) throws Exception {\n");
+        source.append("            switch (id) {\n");
+        for (int i = 0; i < invocations.size(); i++) {
+            source.append("                case ").append(i).append(":\n");
+            source.append("                    ").append(invocations.get(i)).append(";\n");
+            source.append("                    break;\n");
+        }
+        source.append("                default:\n");
+        source.append("                    throw new IllegalStateException(\"Unknown subscriber method \" + id);\n");
+        source.append("            }\n");
+        source.append("        }\n");
+        source.append("    }\n");
+        source.append("}\n");
+        return source.toString();
+    }
+}
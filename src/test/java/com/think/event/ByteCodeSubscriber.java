@@ -11,7 +11,6 @@ import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_SUPER;
 import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.CHECKCAST;
-import static org.objectweb.asm.Opcodes.GETFIELD;
 import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
 import static org.objectweb.asm.Opcodes.PUTFIELD;
@@ -57,15 +56,14 @@ public class ByteCodeSubscriber {
             // 定义invoke方法
             String targetClass = target.getClass().getCanonicalName().replace(".", "/");
 
-            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(Ljava/lang/Object;)V", null, null);
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
             mv.visitCode();
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitFieldInsn(GETFIELD, className, "target", "Ljava/lang/Object;");
-            mv.visitTypeInsn(CHECKCAST, targetClass);
             mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, targetClass);
+            mv.visitVarInsn(ALOAD, 2);
             mv.visitMethodInsn(INVOKEVIRTUAL, targetClass, method.getName(), "(Ljava/lang/Object;)V", false);
             mv.visitInsn(RETURN);
-            mv.visitMaxs(2, 2);
+            mv.visitMaxs(2, 3);
             mv.visitEnd();
         }
 
@@ -88,7 +86,7 @@ public class ByteCodeSubscriber {
         Object subscriberInstance = generatedClass.getDeclaredConstructor(EventBus.class, Object.class, Method.class).newInstance(null, controller, method);
         System.out.println(subscriberInstance);
         SubscriberInvoker subscriber = (SubscriberInvoker) subscriberInstance;
-        subscriber.invoke(new DeadEvent("hello", "event"));
+        subscriber.invoke(controller, new DeadEvent("hello", "event"));
     }
 
     /**
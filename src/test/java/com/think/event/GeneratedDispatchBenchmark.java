@@ -0,0 +1,102 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+
+/**
+ * Compares posting to eight {@link ThreadMode#POSTING} subscribers of different classes through the generic dispatch
+ * loop with posting through a generated dispatch:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *          com.think.event.GeneratedDispatchBenchmark
+ * </pre>
+ */
+public class GeneratedDispatchBenchmark {
+    private static final int POSTS = 10_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        EventBus generic = EventBus.builder().build();
+        EventBus generated = EventBus.builder().compileDispatchAfter(1_000).build();
+        for (EventBus bus : new EventBus[]{generic, generated}) {
+            for (Object listener : new Object[]{new A(), new B(), new C(), new D(), new E(), new F(), new G(), new H()}) {
+                bus.register(listener);
+            }
+        }
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("round %d: generic %6.1f ns/post, generated %6.1f ns/post%n",
+                    round, measure(generic), measure(generated));
+        }
+        System.exit(0);
+    }
+
+    private static double measure(EventBus bus) {
+        Quote quote = new Quote(1);
+        long start = System.nanoTime();
+        for (int i = 0; i < POSTS; i++) {
+            bus.post(quote);
+        }
+        return (System.nanoTime() - start) / (double) POSTS;
+    }
+
+    public record Quote(long price) {
+    }
+
+    static long sink;
+
+    public static class A {
+        @Subscribe
+        public void on(Quote quote) {
+            sink += quote.price();
+        }
+    }
+
+    public static class B {
+        @Subscribe
+        public void on(Quote quote) {
+            sink ^= quote.price();
+        }
+    }
+
+    public static class C {
+        @Subscribe
+        public void on(Quote quote) {
+            sink -= quote.price();
+        }
+    }
+
+    public static class D {
+        @Subscribe
+        public void on(Quote quote) {
+            sink += quote.price() << 1;
+        }
+    }
+
+    public static class E {
+        @Subscribe
+        public void on(Quote quote) {
+            sink |= quote.price();
+        }
+    }
+
+    public static class F {
+        @Subscribe
+        public void on(Quote quote) {
+            sink += quote.price() * 3;
+        }
+    }
+
+    public static class G {
+        @Subscribe
+        public void on(Quote quote) {
+            sink -= quote.price() << 2;
+        }
+    }
+
+    public static class H {
+        @Subscribe
+        public void on(Quote quote) {
+            sink &= ~quote.price();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures registration latency, classes loaded and metaspace growth when many instances of the same listener class
+ * are registered:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *          com.think.event.RegistrationBenchmark
+ * </pre>
+ */
+public class RegistrationBenchmark {
+    private static final int INSTANCES = 2_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        for (int round = 1; round <= ROUNDS; round++) {
+            List<EventBus> buses = new ArrayList<>(INSTANCES);
+            long classes = classLoading.getTotalLoadedClassCount();
+            long metaspace = metaspaceUsed();
+            long start = System.nanoTime();
+            for (int i = 0; i < INSTANCES; i++) {
+                // a bus per instance, which the invoker of a listener class could not be shared with before
+                EventBus bus = new EventBus();
+                bus.register(new Listener());
+                buses.add(bus);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("round %d: %d registrations %6.1f us each, %6d classes loaded, metaspace +%6d KB%n",
+                    round, buses.size(), elapsed / 1_000.0 / INSTANCES,
+                    classLoading.getTotalLoadedClassCount() - classes, (metaspaceUsed() - metaspace) / 1024);
+        }
+        System.exit(0);
+    }
+
+    private static long metaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().equals("Metaspace")) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return 0;
+    }
+
+    public record Created(long id) {
+    }
+
+    public record Updated(long id) {
+    }
+
+    public record Deleted(long id) {
+    }
+
+    public static class Listener {
+        @Subscribe
+        public void onCreated(Created event) {
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onUpdated(Updated event) {
+        }
+
+        @Subscribe(threadMode = ThreadMode.SERIAL)
+        public void onDeleted(Deleted event) {
+        }
+
+        @Subscribe
+        public void onAnything(Object event) {
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import com.think.event.annotation.SubscribeService;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Measures the refresh time of a context with 10, 100 and 1000 subscriber beans, registered on the startup thread
+ * and on a registration pool:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *          com.think.event.StartupBenchmark
+ * </pre>
+ */
+public class StartupBenchmark {
+    private static final int[] BEANS = {10, 100, 1_000};
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int beans : BEANS) {
+            for (int registrationThreads : new int[]{0, threads}) {
+                for (int i = 0; i < WARMUP; i++) {
+                    refresh(beans, registrationThreads);
+                }
+                long total = 0;
+                for (int i = 0; i < ROUNDS; i++) {
+                    total += refresh(beans, registrationThreads);
+                }
+                System.out.printf("%5d beans, %2d registration threads: %8.2f ms%n",
+                        beans, registrationThreads, total / 1_000_000.0 / ROUNDS);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static long refresh(int beans, int registrationThreads) {
+        EventBus bus = new EventBus();
+        try (GenericApplicationContext context = new GenericApplicationContext()) {
+            context.registerBean(SubscriberPostProcessor.class, () -> new SubscriberPostProcessor(bus, registrationThreads));
+            for (int i = 0; i < beans; i++) {
+                context.registerBean("listener" + i, Listener.class);
+            }
+            long start = System.nanoTime();
+            context.refresh();
+            return System.nanoTime() - start;
+        }
+    }
+
+    public record Quote(String symbol, double price, long volume) {
+    }
+
+    public record Trade(String symbol, long quantity, boolean cancelled) {
+    }
+
+    /**
+     * Each instance compiles its conditions and key extractors on registration.
+     */
+    @SubscribeService
+    public static class Listener {
+        @Subscribe(condition = "price > 100.0 && volume >= 1000")
+        public void onQuote(Quote quote) {
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, orderKey = "symbol", condition = "!cancelled && quantity > 0")
+        public void onTrade(Trade trade) {
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, conflationKey = "symbol")
+        public void onLatestQuote(Quote quote) {
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import com.think.event.annotation.SubscribeService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GeneratedClass;
+import org.springframework.aot.generate.GeneratedFiles;
+import org.springframework.aot.generate.GeneratedMethods;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.generate.MethodReference;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.javapoet.ClassName;
+
+import javax.lang.model.element.Modifier;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestAotProcessing {
+
+    @Test
+    public void testBeanFactoryWithoutSubscribersContributesNothing() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("plain", new RootBeanDefinition(Object.class));
+
+        assertNull(new EventBusAotProcessor().processAheadOfTime(beanFactory));
+    }
+
+    @Test
+    public void testHintsCoverIndexedAndReflectiveSubscribers() throws NoSuchMethodException {
+        DefaultGenerationContext generationContext = newGenerationContext();
+        process(generationContext, AotHandler.class, PrivateHandler.class);
+
+        RuntimeHints hints = generationContext.getRuntimeHints();
+        Method indexed = AotHandler.class.getMethod("onPing", Ping.class);
+        Method reflective = PrivateHandler.class.getMethod("onPing", Ping.class);
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(indexed).introspect().test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(reflective).invoke().test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Ping.class.getMethod("count")).invoke().test(hints));
+    }
+
+    @Test
+    public void testGeneratedIndexIsAddedOnInitialization(@TempDir Path output) throws Exception {
+        DefaultGenerationContext generationContext = newGenerationContext();
+        InMemoryGeneratedFiles generatedFiles = (InMemoryGeneratedFiles) generationContext.getGeneratedFiles();
+        // a handler no other test registers, so that no invoker is cached for it yet
+        List<MethodReference> initializers = process(generationContext, InitializedHandler.class);
+        generationContext.writeGeneratedContent();
+        assertEquals(1, initializers.size());
+
+        List<String> sources = new ArrayList<>();
+        for (Map.Entry<String, ?> file : generatedFiles.getGeneratedFiles(GeneratedFiles.Kind.SOURCE).entrySet()) {
+            Path source = output.resolve(file.getKey());
+            Files.createDirectories(source.getParent());
+            try (InputStream in = generatedFiles.getGeneratedFile(GeneratedFiles.Kind.SOURCE, file.getKey()).getInputStream()) {
+                Files.copy(in, source);
+            }
+            sources.add(source.toString());
+        }
+        assertTrue(sources.stream().anyMatch(source -> source.endsWith("TestAotProcessing_InitializedHandler__EventBusSubscribers.java")));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> arguments = new ArrayList<>(List.of("-d", output.toString(),
+                "-classpath", System.getProperty("java.class.path")));
+        arguments.addAll(sources);
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(String[]::new)));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> initializer = loader.loadClass("com.think.event.aot.Test__Initializer");
+            Method register = null;
+            for (Method method : initializer.getMethods()) {
+                if (method.getName().startsWith("registerEventBusSubscriberIndex")) {
+                    register = method;
+                }
+            }
+            assertNotNull(register);
+            register.invoke(null, new DefaultListableBeanFactory());
+
+            EventBus bus = new EventBus();
+            InitializedHandler handler = new InitializedHandler();
+            bus.register(handler);
+            bus.post(new Ping(3));
+
+            assertEquals(List.of(3), handler.received);
+            Method method = InitializedHandler.class.getMethod("onPing", Ping.class);
+            assertEquals("TestAotProcessing_InitializedHandler__EventBusSubscribers",
+                    SubscriberInvokers.get(method).getClass().getEnclosingClass().getSimpleName());
+        }
+    }
+
+    private static DefaultGenerationContext newGenerationContext() {
+        return new DefaultGenerationContext(new ClassNameGenerator(ClassName.get("com.think.event.aot", "Test")),
+                new InMemoryGeneratedFiles());
+    }
+
+    private static List<MethodReference> process(DefaultGenerationContext generationContext, Class<?>... beanClasses) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (Class<?> beanClass : beanClasses) {
+            beanFactory.registerBeanDefinition(beanClass.getSimpleName(), new RootBeanDefinition(beanClass));
+        }
+        BeanFactoryInitializationAotContribution contribution = new EventBusAotProcessor().processAheadOfTime(beanFactory);
+        assertNotNull(contribution);
+
+        GeneratedClass initializer = generationContext.getGeneratedClasses()
+                .addForFeature("Initializer", type -> type.addModifiers(Modifier.PUBLIC));
+        List<MethodReference> initializers = new ArrayList<>();
+        contribution.applyTo(generationContext, new BeanFactoryInitializationCode() {
+            @Override
+            public GeneratedMethods getMethods() {
+                return initializer.getMethods();
+            }
+
+            @Override
+            public void addInitializer(MethodReference methodReference) {
+                initializers.add(methodReference);
+            }
+        });
+        return initializers;
+    }
+
+    public record Ping(int count) {
+    }
+
+    @SubscribeService
+    public static class AotHandler {
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        @Subscribe
+        public void onPing(Ping ping) {
+            received.add(ping.count());
+        }
+    }
+
+    @SubscribeService
+    public static class InitializedHandler {
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        @Subscribe
+        public void onPing(Ping ping) {
+            received.add(ping.count());
+        }
+    }
+
+    @SubscribeService
+    private static class PrivateHandler {
+        @Subscribe(condition = "count > 1")
+        public void onPing(Ping ping) {
+        }
+    }
+}
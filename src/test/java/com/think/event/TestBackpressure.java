@@ -0,0 +1,174 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestBackpressure {
+
+    @Test
+    public void testDropNewest() throws InterruptedException {
+        EventBus bus = new EventBus();
+        DropNewestHandler handler = new DropNewestHandler();
+        bus.register(handler);
+
+        fill(bus, handler, Tick::new);
+
+        assertEquals(List.of(0, 1, 2), handler.awaitReceived(3));
+        assertEquals(3, bus.droppedEvents(handler));
+    }
+
+    @Test
+    public void testDropOldest() throws InterruptedException {
+        EventBus bus = new EventBus();
+        DropOldestHandler handler = new DropOldestHandler();
+        bus.register(handler);
+
+        fill(bus, handler, Tock::new);
+
+        assertEquals(List.of(0, 4, 5), handler.awaitReceived(3));
+        assertEquals(3, bus.droppedEvents(handler));
+    }
+
+    @Test
+    public void testFailReportsRejection() throws InterruptedException {
+        AtomicInteger rejected = new AtomicInteger();
+        EventBus bus = EventBus.builder()
+                .exceptionHandler((e, context) -> {
+                    if (e instanceof RejectedExecutionException) {
+                        rejected.incrementAndGet();
+                    }
+                })
+                .build();
+        FailHandler handler = new FailHandler();
+        bus.register(handler);
+
+        fill(bus, handler, Beat::new);
+
+        assertEquals(List.of(0, 1, 2), handler.awaitReceived(3));
+        assertEquals(3, bus.droppedEvents(handler));
+        assertEquals(3, rejected.get());
+    }
+
+    @Test
+    public void testBlockWaitsForTimeout() throws InterruptedException {
+        EventBus bus = new EventBus();
+        BlockHandler handler = new BlockHandler();
+        bus.register(handler);
+
+        bus.post(new Pulse(0));
+        assertTrue(handler.started.await(5, TimeUnit.SECONDS));
+        bus.post(new Pulse(1));
+        bus.post(new Pulse(2));
+        long start = System.nanoTime();
+        bus.post(new Pulse(3));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        handler.gate.countDown();
+
+        assertTrue(waitedMillis >= 50, "waited " + waitedMillis + "ms");
+        assertEquals(List.of(0, 1, 2), handler.awaitReceived(3));
+        assertEquals(1, bus.droppedEvents(handler));
+    }
+
+    @Test
+    public void testQueueCapacityRequiresQueuedThreadMode() {
+        assertThrows(EventBusException.class, () -> new EventBus().register(new PostingQueueHandler()));
+    }
+
+    /**
+     * Posts one event that blocks the subscriber, two that fill its queue of two and three that overflow it.
+     */
+    private static void fill(EventBus bus, GatedHandler handler, IntFunction<?> events)
+            throws InterruptedException {
+        bus.post(events.apply(0));
+        assertTrue(handler.started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 6; i++) {
+            bus.post(events.apply(i));
+        }
+        handler.gate.countDown();
+    }
+
+    public record Tick(int value) {
+    }
+
+    public record Tock(int value) {
+    }
+
+    public record Beat(int value) {
+    }
+
+    public record Pulse(int value) {
+    }
+
+    public abstract static class GatedHandler {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        void receive(int value) {
+            started.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(value);
+        }
+
+        List<Integer> awaitReceived(int expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (received.size() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            // give late, unexpected deliveries a chance to show up
+            Thread.sleep(50);
+            return received;
+        }
+    }
+
+    public static class DropNewestHandler extends GatedHandler {
+        @Subscribe(threadMode = ThreadMode.ASYNC, queueCapacity = 2, backpressure = BackpressurePolicy.DROP_NEWEST)
+        public void onTick(Tick tick) {
+            receive(tick.value());
+        }
+    }
+
+    public static class DropOldestHandler extends GatedHandler {
+        @Subscribe(threadMode = ThreadMode.ASYNC, queueCapacity = 2, backpressure = BackpressurePolicy.DROP_OLDEST)
+        public void onTock(Tock tock) {
+            receive(tock.value());
+        }
+    }
+
+    public static class FailHandler extends GatedHandler {
+        @Subscribe(threadMode = ThreadMode.SERIAL, queueCapacity = 2, backpressure = BackpressurePolicy.FAIL)
+        public void onBeat(Beat beat) {
+            receive(beat.value());
+        }
+    }
+
+    public static class BlockHandler extends GatedHandler {
+        @Subscribe(threadMode = ThreadMode.ASYNC, queueCapacity = 2, backpressure = BackpressurePolicy.BLOCK,
+                blockTimeoutMillis = 50)
+        public void onPulse(Pulse pulse) {
+            receive(pulse.value());
+        }
+    }
+
+    public static class PostingQueueHandler {
+        @Subscribe(queueCapacity = 2)
+        public void onPostingPulse(Pulse pulse) {
+        }
+    }
+}
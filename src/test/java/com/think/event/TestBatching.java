@@ -0,0 +1,74 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestBatching {
+
+    @Test
+    public void testBatchesCloseOnSizeAndLatency() throws InterruptedException {
+        EventBus bus = new EventBus();
+        RowHandler handler = new RowHandler(25);
+        bus.register(handler);
+
+        for (int i = 0; i < 25; i++) {
+            bus.post(new Row(i));
+        }
+
+        assertTrue(handler.latch.await(5, TimeUnit.SECONDS));
+        List<Integer> sizes = new ArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        for (List<Row> batch : handler.batches) {
+            sizes.add(batch.size());
+            for (Row row : batch) {
+                values.add(row.value());
+            }
+        }
+        // the last, partial batch is closed by its latency limit
+        assertEquals(List.of(10, 10, 5), sizes);
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i, values.get(i));
+        }
+    }
+
+    @Test
+    public void testBatchingRequiresListParameter() {
+        assertThrows(EventBusException.class, () -> new EventBus().register(new SingleRowHandler()));
+    }
+
+    public record Row(int value) {
+    }
+
+    public static class RowHandler {
+        final List<List<Row>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch;
+
+        public RowHandler(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, maxBatchSize = 10, maxLatencyMillis = 50)
+        public void onRows(List<Row> rows) {
+            batches.add(rows);
+            for (int i = 0; i < rows.size(); i++) {
+                latch.countDown();
+            }
+        }
+    }
+
+    public static class SingleRowHandler {
+        @Subscribe(threadMode = ThreadMode.ASYNC, maxBatchSize = 10)
+        public void onSingleRow(Row row) {
+        }
+    }
+}
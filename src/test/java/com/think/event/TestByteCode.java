@@ -14,7 +14,6 @@ import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_SUPER;
 import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.CHECKCAST;
-import static org.objectweb.asm.Opcodes.GETFIELD;
 import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
 import static org.objectweb.asm.Opcodes.PUTFIELD;
@@ -67,15 +66,14 @@ public class TestByteCode {
 
         {
             // 定义invoke方法
-            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(Ljava/lang/Object;)V", null, null);
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
             mv.visitCode();
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitFieldInsn(GETFIELD, className, "target", "Ljava/lang/Object;");
-            mv.visitTypeInsn(CHECKCAST, targetName);
             mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, targetName);
+            mv.visitVarInsn(ALOAD, 2);
             mv.visitMethodInsn(INVOKEVIRTUAL, targetName, method.getName(), "(Ljava/lang/Object;)V", false);
             mv.visitInsn(RETURN);
-            mv.visitMaxs(2, 2);
+            mv.visitMaxs(2, 3);
             mv.visitEnd();
         }
 
@@ -97,6 +95,6 @@ public class TestByteCode {
         Object subscriberInstance = generatedClass.getDeclaredConstructor(EventBus.class, Object.class, Method.class).newInstance(null, target, method);
         System.out.println(subscriberInstance);
         SubscriberInvoker subscriber = (SubscriberInvoker) subscriberInstance;
-        subscriber.invoke(new DeadEvent("hello", "event"));
+        subscriber.invoke(target, new DeadEvent("hello", "event"));
     }
 }
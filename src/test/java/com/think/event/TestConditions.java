@@ -0,0 +1,153 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestConditions {
+
+    @Test
+    public void testConditionFiltersOnPostingThread() {
+        EventBus bus = new EventBus();
+        OrderHandler handler = new OrderHandler();
+        bus.register(handler);
+
+        Order paid = new Order(150, false, Status.PAID, new Customer("EU", 2), 0);
+        Order discounted = new Order(150, false, Status.PAID, new Customer("US", 2), 9.5);
+        Order anonymous = new Order(150, false, Status.PAID, null, 0);
+        bus.post(paid);
+        bus.post(new Order(50, false, Status.PAID, new Customer("EU", 2), 0));
+        bus.post(new Order(150, true, Status.PAID, new Customer("EU", 2), 0));
+        bus.post(new Order(150, false, Status.OPEN, new Customer("EU", 2), 0));
+        bus.post(discounted);
+        bus.post(anonymous);
+
+        assertEquals(List.of(paid), handler.large);
+        assertEquals(List.of(discounted, anonymous), handler.special);
+    }
+
+    @Test
+    public void testFilteredEventsNeverReachTheExecutor() throws InterruptedException {
+        TestFusedAsync.CountingExecutor executor = new TestFusedAsync.CountingExecutor();
+        EventBus bus = EventBus.builder().executor(executor).fuseAsyncSubscribers(true).build();
+        AsyncHandler handler = new AsyncHandler();
+        bus.register(handler);
+
+        for (int i = 0; i < 100; i++) {
+            bus.post(new Reading(i));
+        }
+
+        assertTrue(handler.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(10, executor.tasks.get());
+        bus.shutdown();
+    }
+
+    @Test
+    public void testPostAsyncReportsFilteredDeliveries() throws Exception {
+        EventBus bus = new EventBus();
+        bus.register(new AsyncHandler());
+
+        DeliveryReport report = bus.postAsync(new Reading(1)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(DeliveryReport.Outcome.FILTERED, report.deliveries().get(0).outcome());
+        assertTrue(report.successful());
+    }
+
+    @Test
+    public void testInvalidConditionFailsOnRegistration() {
+        EventBus bus = new EventBus();
+        assertThrows(EventBusException.class, () -> bus.register(new UnknownPropertyHandler()));
+        assertThrows(EventBusException.class, () -> bus.register(new MalformedConditionHandler()));
+    }
+
+    @Test
+    public void testInterpretedConditionsMatchCompiledOnes() {
+        List<String> expressions = List.of(
+                "amount > 100 && !test && status == 'PAID' && customer.region == \"EU\"",
+                "customer == null || customer.tier >= 3 || (discount > 9 && discount < 10)",
+                "discount != 0.0 || amount <= 50");
+        List<Order> orders = List.of(
+                new Order(150, false, Status.PAID, new Customer("EU", 2), 0),
+                new Order(50, true, Status.OPEN, new Customer("US", 3), Double.NaN),
+                new Order(150, false, Status.PAID, null, 9.5));
+        for (String expression : expressions) {
+            EventCondition compiled = EventConditions.compile(Order.class, expression);
+            EventCondition interpreted = EventConditions.interpret(Order.class, expression);
+            for (Order order : orders) {
+                assertEquals(compiled.test(order), interpreted.test(order), expression + " on " + order);
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledConditionIsSharedAndHidden() {
+        String expression = "amount > 100 && customer.region == 'EU'";
+        EventCondition condition = EventConditions.compile(Order.class, expression);
+        assertSame(condition, EventConditions.compile(Order.class, expression));
+        assertTrue(condition.getClass().isHidden());
+        assertEquals(Order.class.getPackageName(), condition.getClass().getPackageName());
+
+        EventCondition jdkCondition = EventConditions.compile(String.class, "empty");
+        assertTrue(jdkCondition.test(""));
+        assertFalse(jdkCondition.test("event"));
+    }
+
+    public enum Status {
+        OPEN, PAID
+    }
+
+    public record Customer(String region, int tier) {
+    }
+
+    public record Order(long amount, boolean test, Status status, Customer customer, double discount) {
+    }
+
+    public record Reading(int value) {
+    }
+
+    public static class OrderHandler {
+        final List<Order> large = new CopyOnWriteArrayList<>();
+        final List<Order> special = new CopyOnWriteArrayList<>();
+
+        @Subscribe(condition = "amount > 100 && !test && status == 'PAID' && customer.region == \"EU\"")
+        public void onLargeOrder(Order order) {
+            large.add(order);
+        }
+
+        @Subscribe(condition = "customer == null || customer.tier >= 3 || (discount > 9 && discount < 10)")
+        public void onSpecialOrder(Order order) {
+            special.add(order);
+        }
+    }
+
+    public static class AsyncHandler {
+        final CountDownLatch latch = new CountDownLatch(10);
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, condition = "value >= 90")
+        public void onHighReading(Reading reading) {
+            latch.countDown();
+        }
+    }
+
+    public static class UnknownPropertyHandler {
+        @Subscribe(condition = "weight > 1")
+        public void onUnknownReading(Reading reading) {
+        }
+    }
+
+    public static class MalformedConditionHandler {
+        @Subscribe(condition = "value > ")
+        public void onMalformedReading(Reading reading) {
+        }
+    }
+}
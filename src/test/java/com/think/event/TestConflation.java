@@ -0,0 +1,102 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestConflation {
+
+    @Test
+    public void testLatestEventPerKeyWins() throws InterruptedException {
+        EventBus bus = new EventBus();
+        PriceHandler handler = new PriceHandler();
+        bus.register(handler);
+
+        bus.post(new Price("A", 0));
+        assertTrue(handler.started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 5; i++) {
+            bus.post(new Price("A", i));
+        }
+        bus.post(new Price("B", 1));
+        bus.post(new Price("B", 2));
+        handler.gate.countDown();
+
+        assertTrue(handler.done.await(5, TimeUnit.SECONDS));
+        // give late, unexpected deliveries a chance to show up
+        Thread.sleep(50);
+        assertEquals(List.of(new Price("A", 0), new Price("A", 5), new Price("B", 2)), handler.received);
+        assertEquals(5, bus.droppedEvents(handler));
+    }
+
+    @Test
+    public void testConflationKeyExcludesOrderKey() {
+        assertThrows(EventBusException.class, () -> new EventBus().register(new OrderedConflationHandler()));
+    }
+
+    @Test
+    public void testFailingConflationKeySkipsOnlyItsSubscriber() {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        EventBus bus = EventBus.builder().exceptionHandler((e, context) -> failures.add(e)).build();
+        UnkeyedHandler handler = new UnkeyedHandler();
+        bus.register(handler);
+
+        bus.post(new Unkeyed());
+
+        assertEquals(1, handler.posted);
+        assertEquals(1, failures.size());
+        assertInstanceOf(IllegalStateException.class, failures.get(0));
+        bus.shutdown();
+    }
+
+    public record Price(String symbol, int value) {
+    }
+
+    public static class Unkeyed {
+        public String symbol() {
+            throw new IllegalStateException("no symbol");
+        }
+    }
+
+    public static class UnkeyedHandler {
+        int posted;
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, conflationKey = "symbol", priority = 1)
+        public void conflated(Unkeyed event) {
+        }
+
+        @Subscribe
+        public void posting(Unkeyed event) {
+            posted++;
+        }
+    }
+
+    public static class PriceHandler {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        final List<Price> received = new CopyOnWriteArrayList<>();
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, conflationKey = "symbol")
+        public void onPrice(Price price) throws InterruptedException {
+            started.countDown();
+            gate.await(5, TimeUnit.SECONDS);
+            received.add(price);
+            done.countDown();
+        }
+    }
+
+    public static class OrderedConflationHandler {
+        @Subscribe(threadMode = ThreadMode.ASYNC, orderKey = "symbol", conflationKey = "symbol")
+        public void onOrderedPrice(Price price) {
+        }
+    }
+}
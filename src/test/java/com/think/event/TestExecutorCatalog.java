@@ -0,0 +1,80 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestExecutorCatalog {
+
+    @Test
+    public void testExecutorPropertiesBinding() {
+        EventBusProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "com.think.eventbus.executors.io.core-size", "2",
+                "com.think.eventbus.executors.io.max-size", "16",
+                "com.think.eventbus.executors.io.queue-type", "synchronous",
+                "com.think.eventbus.executors.io.rejection-policy", "abort",
+                "com.think.eventbus.executors.io.keep-alive", "5s",
+                "com.think.eventbus.executors.io.thread-priority", "3")))
+                .bind("com.think.eventbus", EventBusProperties.class).get();
+
+        EventBusProperties.ExecutorProperties io = properties.getExecutors().get("io");
+        ThreadPoolExecutor executor = EventThreadPoolFactory.create("io", io);
+        assertEquals(2, executor.getCorePoolSize());
+        assertEquals(16, executor.getMaximumPoolSize());
+        assertEquals(Duration.ofSeconds(5).toMillis(), executor.getKeepAliveTime(TimeUnit.MILLISECONDS));
+        assertInstanceOf(SynchronousQueue.class, executor.getQueue());
+        assertInstanceOf(ThreadPoolExecutor.AbortPolicy.class, executor.getRejectedExecutionHandler());
+        assertEquals(3, executor.getThreadFactory().newThread(() -> {
+        }).getPriority());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCustomSubscriberUsesNamedExecutor() throws InterruptedException {
+        ThreadPoolExecutor io = EventThreadPoolFactory.create("io", new EventBusProperties.ExecutorProperties());
+        EventBus bus = EventBus.builder().executor("io", io).build();
+        CustomHandler handler = new CustomHandler();
+        bus.register(handler);
+        bus.post(new Job());
+
+        assertTrue(handler.latch.await(10, TimeUnit.SECONDS));
+        assertTrue(handler.threadName.startsWith("io-pool-"), handler.threadName);
+        assertSame(io, bus.executor("io"));
+        bus.shutdown();
+        assertTrue(io.isShutdown());
+    }
+
+    @Test
+    public void testUnknownExecutorFailsOnRegistration() {
+        EventBus bus = new EventBus();
+        assertThrows(EventBusException.class, () -> bus.register(new CustomHandler()));
+    }
+
+    public record Job() {
+    }
+
+    public static class CustomHandler {
+        final CountDownLatch latch = new CountDownLatch(1);
+        volatile String threadName;
+
+        @Subscribe(threadMode = ThreadMode.CUSTOM, threadPoolName = "io")
+        public void onJob(Job job) {
+            threadName = Thread.currentThread().getName();
+            latch.countDown();
+        }
+    }
+}
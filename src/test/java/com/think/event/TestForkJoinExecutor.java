@@ -0,0 +1,86 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestForkJoinExecutor {
+    private static final int FAN_OUT = 1_000;
+
+    @Test
+    public void testForkJoinExecutorPropertiesBinding() {
+        EventBusProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "com.think.eventbus.executors.cpu.type", "fork-join",
+                "com.think.eventbus.executors.cpu.parallelism", "3")))
+                .bind("com.think.eventbus", EventBusProperties.class).get();
+
+        ExecutorService executor = EventThreadPoolFactory.createExecutor("cpu",
+                properties.getExecutors().get("cpu"));
+        ForkJoinPool pool = assertInstanceOf(ForkJoinPool.class, executor);
+        assertEquals(3, pool.getParallelism());
+        assertTrue(pool.getAsyncMode());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testFollowUpEventsStayOnWorkerDeques() throws InterruptedException {
+        EventBus bus = EventBus.builder().forkJoinExecutor(4).build();
+        FanOutHandler handler = new FanOutHandler(bus);
+        bus.register(handler);
+
+        bus.post(new Order());
+
+        assertTrue(handler.latch.await(10, TimeUnit.SECONDS));
+        assertFalse(handler.offWorker.get());
+        // follow-up deliveries went to the worker's deque, not to the pool's shared submission queues
+        assertEquals(0, handler.submissionsAfterFanOut);
+        bus.shutdown();
+    }
+
+    public record Order() {
+    }
+
+    public record OrderLine(int line) {
+    }
+
+    public static class FanOutHandler {
+        final EventBus bus;
+        final CountDownLatch latch = new CountDownLatch(FAN_OUT);
+        final AtomicBoolean offWorker = new AtomicBoolean();
+        volatile long submissionsAfterFanOut = -1;
+
+        public FanOutHandler(EventBus bus) {
+            this.bus = bus;
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onOrder(Order order) {
+            for (int i = 0; i < FAN_OUT; i++) {
+                bus.post(new OrderLine(i));
+            }
+            submissionsAfterFanOut = ((ForkJoinWorkerThread) Thread.currentThread()).getPool().getQueuedSubmissionCount();
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onOrderLine(OrderLine line) {
+            if (!(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+                offWorker.set(true);
+            }
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestFusedAsync {
+    private static final int EVENTS = 100;
+
+    @Test
+    public void testOneTaskPerEventInPriorityOrder() throws InterruptedException {
+        CountingExecutor executor = new CountingExecutor();
+        EventBus bus = EventBus.builder().executor(executor).fuseAsyncSubscribers(true).build();
+        FusedHandler handler = new FusedHandler(EVENTS);
+        bus.register(handler);
+
+        for (int i = 0; i < EVENTS; i++) {
+            bus.post(new Job(i));
+        }
+
+        assertTrue(handler.latch.await(5, TimeUnit.SECONDS));
+        // one fused task and one task of the parallel subscriber per event
+        assertEquals(2 * EVENTS, executor.tasks.get());
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals(List.of(3, 2, 1), handler.priorities.get(i));
+        }
+        bus.shutdown();
+    }
+
+    @Test
+    public void testPostAllFusesChunks() throws InterruptedException {
+        CountingExecutor executor = new CountingExecutor();
+        EventBus bus = EventBus.builder().executor(executor).fuseAsyncSubscribers(true).build();
+        FusedHandler handler = new FusedHandler(EVENTS);
+        bus.register(handler);
+
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            jobs.add(new Job(i));
+        }
+        bus.postAll(jobs);
+
+        assertTrue(handler.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.tasks.get());
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals(List.of(3, 2, 1), handler.priorities.get(i));
+        }
+        bus.shutdown();
+    }
+
+    @Test
+    public void testTaskPerSubscriberWithoutFusion() throws InterruptedException {
+        CountingExecutor executor = new CountingExecutor();
+        EventBus bus = EventBus.builder().executor(executor).build();
+        FusedHandler handler = new FusedHandler(EVENTS);
+        bus.register(handler);
+
+        for (int i = 0; i < EVENTS; i++) {
+            bus.post(new Job(i));
+        }
+
+        assertTrue(handler.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(4 * EVENTS, executor.tasks.get());
+        bus.shutdown();
+    }
+
+    @Test
+    public void testErrorOfOneFusedSubscriberDoesNotSkipTheOthers() throws InterruptedException {
+        CountingExecutor executor = new CountingExecutor();
+        EventBus bus = EventBus.builder().executor(executor).fuseAsyncSubscribers(true).build();
+        FailingFusedHandler handler = new FailingFusedHandler();
+        bus.register(handler);
+
+        bus.post(new Job(0));
+        bus.postAll(List.of(new Job(1), new Job(2)));
+
+        assertTrue(handler.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.tasks.get());
+        bus.shutdown();
+    }
+
+    public record Job(int id) {
+    }
+
+    static class JobError extends Error {
+    }
+
+    public static class FailingFusedHandler {
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, priority = 2)
+        public void failing(Job job) {
+            throw new JobError();
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, priority = 1)
+        public void counting(Job job) {
+            latch.countDown();
+        }
+    }
+
+    static final class CountingExecutor extends ThreadPoolExecutor {
+        final AtomicInteger tasks = new AtomicInteger();
+
+        CountingExecutor() {
+            super(4, 4, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.incrementAndGet();
+            super.execute(command);
+        }
+    }
+
+    public static class FusedHandler {
+        final Map<Integer, List<Integer>> priorities = new ConcurrentHashMap<>();
+        final CountDownLatch latch;
+
+        public FusedHandler(int events) {
+            this.latch = new CountDownLatch(4 * events);
+        }
+
+        private void record(Job job, int priority) {
+            // fused subscribers of one event run on the same task, so no further synchronization is needed
+            priorities.computeIfAbsent(job.id(), k -> new ArrayList<>()).add(priority);
+            latch.countDown();
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, priority = 1)
+        public void low(Job job) {
+            record(job, 1);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, priority = 3)
+        public void high(Job job) {
+            record(job, 3);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, priority = 2)
+        public void medium(Job job) {
+            record(job, 2);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, priority = 2, parallel = true)
+        public void independent(Job job) {
+            latch.countDown();
+        }
+    }
+}
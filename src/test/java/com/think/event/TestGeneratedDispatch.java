@@ -0,0 +1,134 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestGeneratedDispatch {
+
+    @Test
+    public void testDispatchIsGeneratedForHotEventClass() throws InterruptedException {
+        SubscriberRegistry registry = new SubscriberRegistry(EventBus.builder().compileDispatchAfter(3).build());
+        registry.register(new OrderedHandler());
+        Tick tick = new Tick(1);
+
+        SubscriberRegistry.DispatchTable table = registry.getDispatchTable(tick);
+        assertNull(table.generatedDispatch());
+        assertNull(table.generatedDispatch());
+        // the post reaching the threshold hands the generation to the executor
+        assertNull(table.generatedDispatch());
+        GeneratedDispatch dispatch = awaitGeneratedDispatch(table);
+
+        assertNotNull(dispatch);
+        assertTrue(dispatch.getClass().isHidden());
+        assertSame(table.subscribers, dispatch.subscribers);
+        assertSame(dispatch, table.generatedDispatch());
+    }
+
+    @Test
+    public void testGeneratedDispatchKeepsPriorityOrderConditionsAndExceptions() throws Exception {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        EventBus bus = EventBus.builder()
+                .executor(executor)
+                .compileDispatchAfter(2)
+                .exceptionHandler((e, context) -> failures.add(e))
+                .build();
+        OrderedHandler handler = new OrderedHandler();
+        bus.register(handler);
+
+        bus.post(new Tick(0));
+        bus.post(new Tick(1));
+        // the generation was queued on the executor behind the first asynchronous deliveries
+        executor.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+        bus.post(new Tick(2));
+        bus.post(new Tick(3));
+
+        assertEquals(List.of("first 0", "last 0", "first 1", "odd 1", "last 1",
+                "first 2", "last 2", "first 3", "odd 3", "last 3"), handler.received);
+        assertEquals(4, failures.size());
+        assertInstanceOf(IllegalStateException.class, failures.get(3));
+        assertTrue(handler.async.await(5, TimeUnit.SECONDS));
+        bus.shutdown();
+    }
+
+    @Test
+    public void testChangedSubscribersStartOverAndChurnStaysGeneric() throws InterruptedException {
+        SubscriberRegistry registry = new SubscriberRegistry(EventBus.builder().compileDispatchAfter(1).build());
+        Tick tick = new Tick(1);
+        OrderedHandler handler = new OrderedHandler();
+        for (int i = 0; i < SubscriberRegistry.DispatchTable.MAX_GENERATIONS; i++) {
+            registry.register(handler);
+            assertNull(registry.getDispatchTable(tick).generatedDispatch());
+            GeneratedDispatch dispatch = awaitGeneratedDispatch(registry.getDispatchTable(tick));
+            assertNotNull(dispatch);
+            assertSame(registry.getDispatchTable(tick).subscribers, dispatch.subscribers);
+            registry.unregister(handler);
+        }
+
+        registry.register(handler);
+        assertNull(registry.getDispatchTable(tick).generatedDispatch());
+        Thread.sleep(50);
+        assertNull(registry.getDispatchTable(tick).generatedDispatch());
+    }
+
+    /**
+     * Waits for the executor to publish the dispatch of {@code table}, {@code null} if it does not within 5 seconds.
+     */
+    private static GeneratedDispatch awaitGeneratedDispatch(SubscriberRegistry.DispatchTable table)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        GeneratedDispatch dispatch;
+        while ((dispatch = table.generatedDispatch()) == null && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return dispatch;
+    }
+
+    public record Tick(int id) {
+    }
+
+    public static class OrderedHandler {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch async = new CountDownLatch(4);
+
+        @Subscribe(priority = 4)
+        public void first(Tick tick) {
+            received.add("first " + tick.id());
+        }
+
+        @Subscribe(priority = 3, condition = "id == 1 || id == 3")
+        public void odd(Tick tick) {
+            received.add("odd " + tick.id());
+        }
+
+        @Subscribe(priority = 2, threadMode = ThreadMode.ASYNC)
+        public void asynchronous(Tick tick) {
+            async.countDown();
+        }
+
+        @Subscribe(priority = 1)
+        public void failing(Tick tick) {
+            throw new IllegalStateException("tick " + tick.id());
+        }
+
+        @Subscribe
+        public void last(Tick tick) {
+            received.add("last " + tick.id());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import com.think.event.annotation.SubscribeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestNamedBuses {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(EventAutoConfiguration.class))
+            .withUserConfiguration(HandlerConfiguration.class)
+            .withPropertyValues(
+                    "com.think.eventbus.enabled=true",
+                    "com.think.eventbus.buses.trading.executors.default.core-size=1",
+                    "com.think.eventbus.buses.trading.executors.default.max-size=1");
+
+    private EventBus previousDefault;
+
+    @BeforeEach
+    public void clearDefaultBus() {
+        // the auto-configuration installs its own default bus
+        previousDefault = EventBus.defaultInstance;
+        EventBus.defaultInstance = null;
+    }
+
+    @AfterEach
+    public void restoreDefaultBus() {
+        EventBus.defaultInstance = previousDefault;
+    }
+
+    @Test
+    public void testSubscriberServiceIsRoutedToItsBus() {
+        contextRunner.run(context -> {
+            EventBus trading = context.getBean("tradingEventBus", EventBus.class);
+            assertNotSame(context.getBean(EventBus.class), trading);
+            assertEquals("trading", trading.identifier());
+
+            TradeHandler tradeHandler = context.getBean(TradeHandler.class);
+            DefaultHandler defaultHandler = context.getBean(DefaultHandler.class);
+            context.getBean("tradingEventPublisher", EventPublisher.class).publish(new Trade(1));
+            context.getBean(EventPublisher.class).publish(new Trade(2));
+
+            assertTrue(tradeHandler.latch.await(5, TimeUnit.SECONDS));
+            assertEquals(1, tradeHandler.trade.id());
+            assertTrue(tradeHandler.threadName.startsWith("trading-default-pool-"), tradeHandler.threadName);
+            assertEquals(2, defaultHandler.trade.id());
+            assertSame(trading, context.getBean("tradingEventPublisher", EventPublisher.class).getEventBus());
+        });
+    }
+
+    @Test
+    public void testContextsKeepAnExistingDefaultBus() {
+        EventBus existing = EventBus.getDefault();
+        contextRunner.run(first -> contextRunner.run(second -> {
+            assertNotSame(existing, first.getBean(EventBus.class));
+            assertNotSame(first.getBean(EventBus.class), second.getBean(EventBus.class));
+            assertSame(existing, EventBus.getDefault());
+        }));
+        assertSame(existing, EventBus.getDefault());
+        existing.shutdown();
+    }
+
+    @Test
+    public void testContextInstallsItsBusAsDefaultWhenNoneExists() {
+        contextRunner.run(context -> assertSame(context.getBean(EventBus.class), EventBus.defaultInstance));
+        assertNull(EventBus.defaultInstance);
+    }
+
+    public record Trade(int id) {
+    }
+
+    @Configuration
+    static class HandlerConfiguration {
+        @Bean
+        TradeHandler tradeHandler() {
+            return new TradeHandler();
+        }
+
+        @Bean
+        DefaultHandler defaultHandler() {
+            return new DefaultHandler();
+        }
+    }
+
+    @SubscribeService(bus = "trading")
+    public static class TradeHandler {
+        final CountDownLatch latch = new CountDownLatch(1);
+        volatile Trade trade;
+        volatile String threadName;
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onTrade(Trade trade) {
+            this.trade = trade;
+            this.threadName = Thread.currentThread().getName();
+            latch.countDown();
+        }
+    }
+
+    @SubscribeService
+    public static class DefaultHandler {
+        volatile Trade trade;
+
+        @Subscribe
+        public void onDefaultTrade(Trade trade) {
+            this.trade = trade;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestOrderKey {
+    private static final int ACCOUNTS = 16;
+    private static final int EVENTS_PER_ACCOUNT = 500;
+
+    @Test
+    public void testEventsWithSameKeyAreDeliveredInOrder() throws InterruptedException {
+        EventBus bus = EventBus.builder().orderedLanes(4).build();
+        AccountHandler handler = new AccountHandler(ACCOUNTS * EVENTS_PER_ACCOUNT);
+        bus.register(handler);
+
+        for (int i = 0; i < EVENTS_PER_ACCOUNT; i++) {
+            for (long account = 0; account < ACCOUNTS; account++) {
+                bus.post(new AccountEvent(account, i));
+            }
+        }
+
+        assertTrue(handler.latch.await(30, TimeUnit.SECONDS));
+        for (long account = 0; account < ACCOUNTS; account++) {
+            List<Integer> sequences = handler.sequences.get(account);
+            assertEquals(EVENTS_PER_ACCOUNT, sequences.size());
+            for (int i = 0; i < EVENTS_PER_ACCOUNT; i++) {
+                assertEquals(i, sequences.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testGeneratedKeyExtractorBoxesPrimitiveKeys() {
+        EventKeyExtractor extractor = EventKeyExtractors.get(
+                EventKeyExtractors.findAccessor(AccountEvent.class, "accountId"));
+        assertEquals(42L, extractor.key(new AccountEvent(42L, 0)));
+        assertThrows(EventBusException.class, () -> EventKeyExtractors.findAccessor(AccountEvent.class, "missing"));
+    }
+
+    @Test
+    public void testKeyExtractorIsSharedAndHidden() {
+        EventBus first = EventBus.builder().orderedLanes(2).build();
+        EventBus second = EventBus.builder().orderedLanes(2).build();
+        first.register(new AccountHandler(0));
+        second.register(new AccountHandler(0));
+
+        EventKeyExtractor extractor = EventKeyExtractors.get(
+                EventKeyExtractors.findAccessor(AccountEvent.class, "accountId"));
+        assertSame(extractor, EventKeyExtractors.get(EventKeyExtractors.findAccessor(AccountEvent.class, "accountId")));
+        assertTrue(extractor.getClass().isHidden());
+        assertEquals(AccountEvent.class.getPackageName(), extractor.getClass().getPackageName());
+    }
+
+    @Test
+    public void testKeyExtractorForJdkAccessor() {
+        EventKeyExtractor extractor = EventKeyExtractors.get(EventKeyExtractors.findAccessor(String.class, "empty"));
+        assertEquals(Boolean.TRUE, extractor.key(""));
+        assertEquals(Boolean.FALSE, extractor.key("key"));
+    }
+
+    @Test
+    public void testOrderKeyRequiresAsyncThreadMode() {
+        SubscriberMethodFinder finder = new SubscriberMethodFinder();
+        assertThrows(EventBusException.class, () -> finder.findSubscriberMethods(PostingOrderHandler.class));
+    }
+
+    @Test
+    public void testFailingOrderKeySkipsOnlyItsSubscriber() throws InterruptedException {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        EventBus bus = EventBus.builder()
+                .orderedLanes(2)
+                .exceptionHandler((e, context) -> failures.add(e))
+                .build();
+        UnkeyedHandler handler = new UnkeyedHandler();
+        bus.register(handler);
+
+        bus.post(new UnkeyedEvent());
+        bus.postAll(List.of(new UnkeyedEvent()));
+
+        assertEquals(2, handler.posted);
+        assertEquals(2, failures.size());
+        assertInstanceOf(IllegalStateException.class, failures.get(0));
+        bus.shutdown();
+    }
+
+    public record AccountEvent(long accountId, int sequence) {
+    }
+
+    public static class UnkeyedEvent {
+        public String account() {
+            throw new IllegalStateException("no account");
+        }
+    }
+
+    public static class UnkeyedHandler {
+        int posted;
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, orderKey = "account", priority = 1)
+        public void ordered(UnkeyedEvent event) {
+        }
+
+        @Subscribe
+        public void posting(UnkeyedEvent event) {
+            posted++;
+        }
+    }
+
+    public static class AccountHandler {
+        final Map<Long, List<Integer>> sequences = new ConcurrentHashMap<>();
+        final CountDownLatch latch;
+
+        public AccountHandler(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, orderKey = "accountId")
+        public void onAccountEvent(AccountEvent event) {
+            sequences.computeIfAbsent(event.accountId(), k -> new CopyOnWriteArrayList<>()).add(event.sequence());
+            latch.countDown();
+        }
+    }
+
+    public static class PostingOrderHandler {
+        @Subscribe(orderKey = "accountId")
+        public void onAccountEvent(AccountEvent event) {
+        }
+    }
+}
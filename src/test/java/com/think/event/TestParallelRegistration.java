@@ -0,0 +1,128 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import com.think.event.annotation.SubscribeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestParallelRegistration {
+    private static final int HANDLERS = 50;
+
+    private EventBus previousDefault;
+
+    @BeforeEach
+    public void clearDefaultBus() {
+        // the auto-configuration installs its own default bus
+        previousDefault = EventBus.defaultInstance;
+        EventBus.defaultInstance = null;
+    }
+
+    @AfterEach
+    public void restoreDefaultBus() {
+        EventBus.defaultInstance = previousDefault;
+    }
+
+    @Test
+    public void testSubscriberBeansAreRegisteredBeforeRefresh() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(EventAutoConfiguration.class))
+                .withPropertyValues("com.think.eventbus.enabled=true", "com.think.eventbus.registration-threads=4")
+                .withBean(RefreshListener.class);
+        for (int i = 0; i < HANDLERS; i++) {
+            contextRunner = contextRunner.withBean("handler" + i, Handler.class, Handler::new);
+        }
+
+        contextRunner.run(context -> {
+            RefreshListener listener = context.getBean(RefreshListener.class);
+            assertEquals(HANDLERS, listener.received.size());
+            for (int i = 0; i < HANDLERS; i++) {
+                // same priority, so in the order the beans were created
+                assertTrue(listener.received.get(i) == context.getBean("handler" + i), "handler" + i);
+            }
+        });
+    }
+
+    @Test
+    public void testFailedRegistrationFailsStartup() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(EventAutoConfiguration.class))
+                .withPropertyValues("com.think.eventbus.enabled=true", "com.think.eventbus.registration-threads=2")
+                .withBean("invalidHandler", InvalidHandler.class, InvalidHandler::new)
+                .run(context -> {
+                    Throwable failure = context.getStartupFailure();
+                    assertInstanceOf(EventBusException.class, failure);
+                    assertTrue(failure.getMessage().contains("invalidHandler"), failure.getMessage());
+                });
+    }
+
+    @Test
+    public void testExecutorBeansAreCreatedOnTheStartupThread() {
+        Thread startupThread = Thread.currentThread();
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(EventAutoConfiguration.class))
+                .withPropertyValues("com.think.eventbus.enabled=true", "com.think.eventbus.registration-threads=2")
+                // created before the executor bean, so that its registration resolves the executor
+                .withBean("customHandler", CustomHandler.class, CustomHandler::new)
+                .withBean("ioExecutor", CreatingThreadExecutor.class, CreatingThreadExecutor::new)
+                .run(context -> {
+                    assertTrue(context.getStartupFailure() == null, String.valueOf(context.getStartupFailure()));
+                    assertTrue(context.getBean(CreatingThreadExecutor.class).creatingThread == startupThread);
+                });
+    }
+
+    public record Ready(List<Object> received) {
+    }
+
+    @SubscribeService
+    public static class Handler {
+        @Subscribe(condition = "received != null")
+        public void onReady(Ready ready) {
+            ready.received().add(this);
+        }
+    }
+
+    @SubscribeService
+    public static class InvalidHandler {
+        @Subscribe(condition = "missing > 1")
+        public void onReady(Ready ready) {
+        }
+    }
+
+    @SubscribeService
+    public static class CustomHandler {
+        @Subscribe(threadMode = ThreadMode.CUSTOM, threadPoolName = "ioExecutor")
+        public void onReady(Ready ready) {
+        }
+    }
+
+    public static class CreatingThreadExecutor implements Executor {
+        final Thread creatingThread = Thread.currentThread();
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+
+    public static class RefreshListener implements ApplicationListener<ContextRefreshedEvent> {
+        final List<Object> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onApplicationEvent(ContextRefreshedEvent event) {
+            event.getApplicationContext().getBean(EventBus.class).post(new Ready(received));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestPostAll {
+
+    @Test
+    public void testPostAllKeepsPostingOrder() {
+        EventBus bus = new EventBus();
+        OrderHandler handler = new OrderHandler();
+        bus.register(handler);
+
+        bus.postAll(new OrderLine(1), new OrderLine(2), new Refund(3), new OrderLine(4), "unhandled");
+
+        assertEquals(List.of("line:1", "audit:1", "line:2", "audit:2", "refund:3", "line:4", "audit:4", "dead:unhandled"),
+                handler.received);
+    }
+
+    @Test
+    public void testPostAllDeliversBatchToAsyncSubscribers() throws InterruptedException {
+        EventBus bus = new EventBus();
+        AsyncHandler handler = new AsyncHandler(1000);
+        bus.register(handler);
+
+        List<OrderLine> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add(new OrderLine(i));
+        }
+        bus.postAll(lines);
+
+        assertTrue(handler.latch.await(10, TimeUnit.SECONDS));
+        assertEquals(1000, handler.received.size());
+    }
+
+    public record OrderLine(int id) {
+    }
+
+    public record Refund(int id) {
+    }
+
+    public static class OrderHandler {
+        final List<String> received = new ArrayList<>();
+
+        @Subscribe(priority = 10)
+        public void onLine(OrderLine line) {
+            received.add("line:" + line.id());
+        }
+
+        @Subscribe
+        public void onAudit(OrderLine line) {
+            received.add("audit:" + line.id());
+        }
+
+        @Subscribe
+        public void onRefund(Refund refund) {
+            received.add("refund:" + refund.id());
+        }
+
+        @Subscribe
+        public void onDeadEvent(DeadEvent event) {
+            received.add("dead:" + event.event());
+        }
+    }
+
+    public static class AsyncHandler {
+        final List<OrderLine> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch;
+
+        public AsyncHandler(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onLine(OrderLine line) {
+            received.add(line);
+            latch.countDown();
+        }
+    }
+}
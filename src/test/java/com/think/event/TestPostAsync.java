@@ -0,0 +1,149 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestPostAsync {
+
+    @Test
+    public void testReportCompletesAfterEverySubscriber() throws Exception {
+        EventBus bus = EventBus.builder()
+                .executor("io", Executors.newSingleThreadExecutor())
+                .exceptionHandler((e, context) -> {
+                })
+                .build();
+        MixedHandler handler = new MixedHandler();
+        bus.register(handler);
+
+        DeliveryReport report = bus.postAsync(new Shipment("A")).get(5, TimeUnit.SECONDS);
+
+        List<DeliveryReport.Delivery> deliveries = report.deliveries();
+        assertEquals(List.of("posting", "async", "serial", "custom", "failing"),
+                deliveries.stream().map(delivery -> delivery.method().getName()).toList());
+        assertEquals(DeliveryReport.Outcome.SUCCESS, deliveries.get(0).outcome());
+        assertEquals(DeliveryReport.Outcome.SUCCESS, deliveries.get(1).outcome());
+        assertTrue(deliveries.get(1).elapsed().compareTo(Duration.ofMillis(50)) >= 0, deliveries.get(1).toString());
+        assertNull(deliveries.get(2).failure());
+        assertEquals(DeliveryReport.Outcome.FAILURE, deliveries.get(4).outcome());
+        assertInstanceOf(IllegalStateException.class, deliveries.get(4).failure());
+        assertFalse(report.successful());
+        // the slow async subscriber finished before the report was completed
+        assertEquals(4, handler.completed);
+        bus.shutdown();
+    }
+
+    @Test
+    public void testEventWithoutSubscribersCompletesRightAway() {
+        CompletableFuture<DeliveryReport> future = new EventBus().postAsync(new Shipment("B"));
+
+        assertTrue(future.isDone());
+        assertTrue(future.join().deliveries().isEmpty());
+        assertTrue(future.join().successful());
+    }
+
+    @Test
+    public void testErrorOnExecutorStillCompletesTheReport() throws Exception {
+        EventBus bus = EventBus.builder().executor(Executors.newSingleThreadExecutor()).build();
+        bus.register(new ErrorHandler());
+
+        DeliveryReport report = bus.postAsync(new Shipment("C")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(DeliveryReport.Outcome.FAILURE, report.deliveries().get(0).outcome());
+        assertInstanceOf(ShipmentError.class, report.deliveries().get(0).failure());
+        bus.shutdown();
+    }
+
+    @Test
+    public void testFailingOrderKeyFailsOnlyItsDelivery() throws Exception {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        EventBus bus = EventBus.builder()
+                .orderedLanes(2)
+                .exceptionHandler((e, context) -> failures.add(e))
+                .build();
+        bus.register(new KeyedHandler());
+
+        DeliveryReport report = bus.postAsync(new Parcel("D")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(DeliveryReport.Outcome.FAILURE, report.deliveries().get(0).outcome());
+        assertInstanceOf(IllegalStateException.class, report.deliveries().get(0).failure());
+        assertEquals(DeliveryReport.Outcome.SUCCESS, report.deliveries().get(1).outcome());
+        assertEquals(List.of(report.deliveries().get(0).failure()), failures);
+        bus.shutdown();
+    }
+
+    public record Shipment(String id) {
+    }
+
+    public record Parcel(String id) {
+        public String region() {
+            throw new IllegalStateException("no region for " + id);
+        }
+    }
+
+    public static class KeyedHandler {
+        @Subscribe(threadMode = ThreadMode.ASYNC, orderKey = "region", priority = 1)
+        public void ordered(Parcel parcel) {
+        }
+
+        @Subscribe
+        public void posting(Parcel parcel) {
+        }
+    }
+
+    static class ShipmentError extends Error {
+    }
+
+    public static class ErrorHandler {
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onShipment(Shipment shipment) {
+            throw new ShipmentError();
+        }
+    }
+
+    public static class MixedHandler {
+        volatile int completed;
+
+        private synchronized void complete() {
+            completed++;
+        }
+
+        @Subscribe(priority = 5)
+        public void posting(Shipment shipment) {
+            complete();
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, priority = 4)
+        public void async(Shipment shipment) throws InterruptedException {
+            Thread.sleep(50);
+            complete();
+        }
+
+        @Subscribe(threadMode = ThreadMode.SERIAL, priority = 3)
+        public void serial(Shipment shipment) {
+            complete();
+        }
+
+        @Subscribe(threadMode = ThreadMode.CUSTOM, threadPoolName = "io", priority = 2)
+        public void custom(Shipment shipment) {
+            complete();
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC, priority = 1)
+        public void failing(Shipment shipment) {
+            throw new IllegalStateException("rejected " + shipment.id());
+        }
+    }
+}
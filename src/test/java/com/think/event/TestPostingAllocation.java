@@ -0,0 +1,71 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class TestPostingAllocation {
+    private static final int POSTS = 100_000;
+
+    @Test
+    public void testPostingDispatchDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        EventBus bus = new EventBus();
+        CountingHandler handler = new CountingHandler(bus);
+        bus.register(handler);
+        TickEvent event = new TickEvent();
+
+        // warm up the dispatch table, the per-thread dispatch state and the JIT
+        for (int i = 0; i < POSTS; i++) {
+            bus.post(event);
+        }
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < POSTS; i++) {
+            bus.post(event);
+        }
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+
+        // below a byte per post: late JIT compilations, deoptimizations or the TLAB accounting may still allocate a
+        // little, while a single object per post would exceed the bound by far
+        assertTrue(allocated < POSTS, allocated + " bytes allocated by " + POSTS + " posts");
+        assertEquals(2L * POSTS, handler.count);
+        assertEquals(2L * POSTS, handler.nestedCount);
+    }
+
+    public static class TickEvent {
+    }
+
+    public static class NestedEvent {
+    }
+
+    public static class CountingHandler {
+        private final NestedEvent nested = new NestedEvent();
+        private final EventBus bus;
+        long count;
+        long nestedCount;
+
+        public CountingHandler(EventBus bus) {
+            this.bus = bus;
+        }
+
+        @Subscribe
+        public void onTick(TickEvent event) {
+            count++;
+            // reentrant post, queued on the same per-thread state
+            bus.post(nested);
+        }
+
+        @Subscribe
+        public void onNested(NestedEvent event) {
+            nestedCount++;
+        }
+    }
+}
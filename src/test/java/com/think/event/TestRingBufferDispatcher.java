@@ -0,0 +1,206 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestRingBufferDispatcher {
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 5_000;
+
+    @Test
+    public void testIdleCounterStopsGrowing() {
+        int counter = 0;
+        for (int i = 0; i < 1000; i++) {
+            counter = WaitStrategy.YIELD.idle(counter);
+        }
+        assertEquals(counter, WaitStrategy.YIELD.idle(counter));
+        assertEquals(Integer.MAX_VALUE, WaitStrategy.BUSY_SPIN.idle(Integer.MAX_VALUE));
+
+        counter = 0;
+        for (int i = 0; i < 300; i++) {
+            counter = WaitStrategy.PARK.idle(counter);
+        }
+        assertEquals(counter, WaitStrategy.PARK.idle(counter));
+        assertTrue(counter > 0);
+    }
+
+    @Test
+    public void testMultipleProducersWithEachWaitStrategy() throws InterruptedException {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            // a small ring forces producers to wrap around and wait for consumers
+            EventBus bus = EventBus.builder().ringBufferDispatcher(64, 2, waitStrategy).build();
+            SumHandler handler = new SumHandler(PRODUCERS * EVENTS_PER_PRODUCER);
+            bus.register(handler);
+
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                Thread producer = new Thread(() -> {
+                    for (int i = 1; i <= EVENTS_PER_PRODUCER; i++) {
+                        bus.post(new Tick(i));
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            assertTrue(handler.latch.await(30, TimeUnit.SECONDS), waitStrategy.name());
+            long expected = (long) PRODUCERS * EVENTS_PER_PRODUCER * (EVENTS_PER_PRODUCER + 1) / 2;
+            assertEquals(expected, handler.asyncSum.get(), waitStrategy.name());
+            assertEquals(expected, handler.postingSum.get(), waitStrategy.name());
+            bus.shutdown();
+        }
+    }
+
+    @Test
+    public void testErrorsDoNotKillTheConsumer() throws InterruptedException {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        CountDownLatch handled = new CountDownLatch(10);
+        EventBus bus = EventBus.builder()
+                .ringBufferDispatcher(4, 1, WaitStrategy.PARK)
+                .exceptionHandler((e, context) -> {
+                    failures.add(e);
+                    handled.countDown();
+                })
+                .build();
+        FailingHandler handler = new FailingHandler(20);
+        bus.register(handler);
+
+        for (int i = 1; i <= 20; i++) {
+            bus.post(new Tick(i));
+        }
+
+        assertTrue(handler.latch.await(5, TimeUnit.SECONDS));
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals(10, failures.size());
+        assertInstanceOf(Error.class, failures.get(0));
+        bus.shutdown();
+    }
+
+    @Test
+    public void testConsumerPostingToFullRingDoesNotDeadlock() throws InterruptedException {
+        EventBus bus = EventBus.builder().ringBufferDispatcher(2, 1, WaitStrategy.PARK).build();
+        FanOutHandler handler = new FanOutHandler(bus, 100);
+        bus.register(handler);
+
+        bus.post(new Tick(0));
+
+        assertTrue(handler.latch.await(5, TimeUnit.SECONDS));
+        bus.shutdown();
+    }
+
+    @Test
+    public void testShutdownDeliversEventsLeftInTheRing() throws InterruptedException {
+        EventBus bus = EventBus.builder().ringBufferDispatcher(64, 1, WaitStrategy.PARK).build();
+        SlowHandler handler = new SlowHandler(50);
+        bus.register(handler);
+        for (int i = 0; i < 50; i++) {
+            bus.post(new Tick(i));
+        }
+
+        bus.shutdown();
+        bus.post(new Tick(50));
+
+        // at most the event the consumer is still working on is outstanding
+        assertTrue(handler.latch.getCount() <= 1);
+        assertTrue(handler.latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBufferSizeMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferDispatcher(100, 1, WaitStrategy.PARK));
+    }
+
+    public record Tick(long value) {
+    }
+
+    public static class FailingHandler {
+        final CountDownLatch latch;
+
+        public FailingHandler(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onTick(Tick tick) {
+            latch.countDown();
+            if (tick.value() % 2 == 0) {
+                // rethrown by the subscriber as an Error
+                throw new IllegalArgumentException("tick " + tick.value());
+            }
+        }
+    }
+
+    public static class FanOutHandler {
+        final EventBus bus;
+        final int expected;
+        final CountDownLatch latch;
+
+        public FanOutHandler(EventBus bus, int expected) {
+            this.bus = bus;
+            this.expected = expected;
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onTick(Tick tick) {
+            if (tick.value() == 0) {
+                // fills the ring from its only consumer
+                for (int i = 1; i <= expected; i++) {
+                    bus.post(new Tick(i));
+                }
+            } else {
+                latch.countDown();
+            }
+        }
+    }
+
+    public static class SlowHandler {
+        final CountDownLatch latch;
+
+        public SlowHandler(int expected) {
+            this.latch = new CountDownLatch(expected + 1);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onTick(Tick tick) throws InterruptedException {
+            Thread.sleep(1);
+            latch.countDown();
+        }
+    }
+
+    public static class SumHandler {
+        final AtomicLong asyncSum = new AtomicLong();
+        final AtomicLong postingSum = new AtomicLong();
+        final CountDownLatch latch;
+
+        public SumHandler(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onAsyncTick(Tick tick) {
+            asyncSum.addAndGet(tick.value());
+            latch.countDown();
+        }
+
+        @Subscribe
+        public void onTick(Tick tick) {
+            postingSum.addAndGet(tick.value());
+        }
+    }
+}
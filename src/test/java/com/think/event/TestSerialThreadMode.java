@@ -0,0 +1,79 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSerialThreadMode {
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 2_000;
+
+    @Test
+    public void testSerialSubscriberRunsInOrderAndNeverConcurrently() throws InterruptedException {
+        EventBus bus = new EventBus();
+        SerialHandler handler = new SerialHandler(PRODUCERS * EVENTS_PER_PRODUCER);
+        bus.register(handler);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producerId = p;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                    bus.post(new Sequenced(producerId, i));
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertTrue(handler.latch.await(30, TimeUnit.SECONDS));
+        assertFalse(handler.overlapped.get());
+        assertFalse(handler.outOfOrder.get());
+        for (int p = 0; p < PRODUCERS; p++) {
+            assertEquals(EVENTS_PER_PRODUCER - 1, handler.lastSequence.get(p));
+        }
+    }
+
+    public record Sequenced(int producer, int sequence) {
+    }
+
+    public static class SerialHandler {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        final AtomicBoolean outOfOrder = new AtomicBoolean();
+        final Map<Integer, Integer> lastSequence = new ConcurrentHashMap<>();
+        final CountDownLatch latch;
+
+        public SerialHandler(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.SERIAL)
+        public void onSequenced(Sequenced event) {
+            if (inFlight.incrementAndGet() != 1) {
+                overlapped.set(true);
+            }
+            Integer last = lastSequence.put(event.producer(), event.sequence());
+            if (event.sequence() != (last == null ? 0 : last + 1)) {
+                outOfOrder.set(true);
+            }
+            inFlight.decrementAndGet();
+            latch.countDown();
+        }
+    }
+}
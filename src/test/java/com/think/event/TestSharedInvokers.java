@@ -0,0 +1,76 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSharedInvokers {
+
+    @Test
+    public void testInstancesOfTheSameClassShareOneHiddenInvoker() throws NoSuchMethodException {
+        EventBus bus = new EventBus();
+        Handler first = new Handler();
+        Handler second = new Handler();
+        bus.register(first);
+        bus.register(second);
+        new EventBus().register(new Handler());
+
+        bus.post(new Ping(1));
+
+        assertEquals(List.of(new Ping(1)), first.pings);
+        assertEquals(List.of(new Ping(1)), second.pings);
+        Method method = Handler.class.getMethod("onPing", Ping.class);
+        SubscriberInvoker<Object, Object> invoker = SubscriberInvokers.get(method);
+        assertSame(invoker, SubscriberInvokers.get(method));
+        assertTrue(invoker.getClass().isHidden());
+    }
+
+    @Test
+    public void testObjectEventAndSameMethodNameInOtherClasses() {
+        EventBus bus = new EventBus();
+        Handler handler = new Handler();
+        OtherHandler other = new OtherHandler();
+        bus.register(handler);
+        bus.register(other);
+
+        bus.post(new Ping(2));
+
+        assertEquals(List.of(new Ping(2)), handler.pings);
+        assertEquals(List.of(new Ping(2)), handler.everything);
+        assertEquals(List.of(new Ping(2)), other.pings);
+    }
+
+    public record Ping(int id) {
+    }
+
+    public static class Handler {
+        final List<Ping> pings = new CopyOnWriteArrayList<>();
+        final List<Object> everything = new CopyOnWriteArrayList<>();
+
+        @Subscribe
+        public void onPing(Ping ping) {
+            pings.add(ping);
+        }
+
+        @Subscribe
+        public void onAnything(Object event) {
+            everything.add(event);
+        }
+    }
+
+    static class OtherHandler {
+        final List<Ping> pings = new CopyOnWriteArrayList<>();
+
+        @Subscribe
+        public void onPing(Ping ping) {
+            pings.add(ping);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestStickyEvents {
+
+    @Test
+    public void testStickySubscriberReceivesLastEventOnRegistration() {
+        EventBus bus = new EventBus();
+        bus.postSticky(new Config("v1"));
+        bus.postSticky(new Config("v2"));
+
+        StickyHandler handler = new StickyHandler();
+        bus.register(handler);
+
+        assertEquals(List.of(new Config("v2")), handler.configs);
+        // sticky subscribers also see regular posts
+        bus.post(new Config("v3"));
+        assertEquals(List.of(new Config("v2"), new Config("v3")), handler.configs);
+    }
+
+    @Test
+    public void testStickySubscriberOfSupertype() {
+        EventBus bus = new EventBus();
+        bus.postSticky(new Config("v1"));
+        bus.postSticky(new Presence("alice"));
+
+        StateHandler handler = new StateHandler();
+        bus.register(handler);
+
+        assertEquals(2, handler.states.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTypeIsEvicted() {
+        EventBus bus = EventBus.builder().stickyEvents(2, Duration.ZERO).build();
+        bus.postSticky(new Config("v1"));
+        bus.postSticky(new Presence("alice"));
+        // touches Config, so Presence is the least recently used type
+        assertNotNull(bus.getStickyEvent(Config.class));
+        bus.postSticky(new Quote(42));
+
+        assertNull(bus.getStickyEvent(Presence.class));
+        assertEquals(new Config("v1"), bus.getStickyEvent(Config.class));
+        assertEquals(new Quote(42), bus.getStickyEvent(Quote.class));
+    }
+
+    @Test
+    public void testExpiredEventIsNotDelivered() throws InterruptedException {
+        EventBus bus = EventBus.builder().stickyEvents(16, Duration.ofMillis(20)).build();
+        bus.postSticky(new Config("v1"));
+        Thread.sleep(50);
+
+        StickyHandler handler = new StickyHandler();
+        bus.register(handler);
+
+        assertTrue(handler.configs.isEmpty());
+        assertNull(bus.getStickyEvent(Config.class));
+    }
+
+    @Test
+    public void testRemoveStickyEvent() {
+        EventBus bus = new EventBus();
+        Config config = new Config("v1");
+        bus.postSticky(config);
+
+        assertTrue(bus.removeStickyEvent(config));
+        assertNull(bus.getStickyEvent(Config.class));
+    }
+
+    public interface State {
+    }
+
+    public record Config(String version) implements State {
+    }
+
+    public record Presence(String user) implements State {
+    }
+
+    public record Quote(int price) {
+    }
+
+    public static class StickyHandler {
+        final List<Config> configs = new ArrayList<>();
+
+        @Subscribe(sticky = true)
+        public void onConfig(Config config) {
+            configs.add(config);
+        }
+    }
+
+    public static class StateHandler {
+        final List<State> states = new ArrayList<>();
+
+        @Subscribe(sticky = true)
+        public void onState(State state) {
+            states.add(state);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.think.event;
+
+import com.think.event.processor.SubscriberIndexProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the {@link SubscriberIndexProcessor} on fixture sources, the test sources themselves are compiled without it.
+ */
+public class TestSubscriberIndex {
+    private static final String SIGNAL = """
+            package com.example.signals;
+
+            public record Signal(String name) {
+            }
+            """;
+
+    private static final String BASE_HANDLER = """
+            package com.example.signals;
+
+            import com.think.event.annotation.Subscribe;
+            import java.util.List;
+            import java.util.concurrent.CopyOnWriteArrayList;
+
+            public class BaseHandler {
+                public final List<String> received = new CopyOnWriteArrayList<>();
+
+                @Subscribe(priority = 1)
+                public void onBase(Signal signal) {
+                    received.add("base " + signal.name());
+                }
+            }
+            """;
+
+    private static final String DERIVED_HANDLER = """
+            package com.example.signals;
+
+            import com.think.event.annotation.Subscribe;
+
+            public class DerivedHandler extends BaseHandler {
+                @Subscribe
+                public void onDerived(Signal signal) {
+                    received.add("derived " + signal.name());
+                }
+            }
+            """;
+
+    private static final String HIDDEN_HANDLER = """
+            package com.example.signals;
+
+            import com.think.event.annotation.Subscribe;
+
+            class HiddenHandler {
+                @Subscribe
+                public void onHidden(Signal signal) {
+                }
+            }
+            """;
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void testPublicSubscribersAreIndexed() throws Exception {
+        try (URLClassLoader loader = compile("module", Map.of("Signal", SIGNAL, "BaseHandler", BASE_HANDLER,
+                "DerivedHandler", DERIVED_HANDLER, "HiddenHandler", HIDDEN_HANDLER))) {
+            SubscriberInfoIndex index = loadIndex(loader);
+
+            SubscriberInfo base = index.getSubscriberInfo(loader.loadClass("com.example.signals.BaseHandler"));
+            assertNotNull(base);
+            assertFalse(base.checkSuperclass());
+            assertEquals("onBase", base.methods()[0].methodName());
+            assertTrue(index.getSubscriberInfo(loader.loadClass("com.example.signals.DerivedHandler")).checkSuperclass());
+            assertNull(index.getSubscriberInfo(loader.loadClass("com.example.signals.HiddenHandler")));
+        }
+    }
+
+    @Test
+    public void testRegistrationUsesIndexedInvokers() throws Exception {
+        try (URLClassLoader loader = compile("module", Map.of("Signal", SIGNAL, "BaseHandler", BASE_HANDLER,
+                "DerivedHandler", DERIVED_HANDLER))) {
+            SubscriberInfoIndex index = loadIndex(loader);
+            EventBus.addIndex(index);
+            Class<?> signalClass = loader.loadClass("com.example.signals.Signal");
+            Class<?> handlerClass = loader.loadClass("com.example.signals.DerivedHandler");
+            Object handler = handlerClass.getConstructor().newInstance();
+
+            EventBus bus = new EventBus();
+            bus.register(handler);
+            bus.post(signalClass.getConstructor(String.class).newInstance("a"));
+
+            assertEquals(List.of("base a", "derived a"), handlerClass.getField("received").get(handler));
+            Method method = handlerClass.getSuperclass().getMethod("onBase", signalClass);
+            assertEquals(index.getClass(), SubscriberInvokers.get(method).getClass().getEnclosingClass());
+        }
+    }
+
+    @Test
+    public void testModulesSharingAPackageGetDistinctIndexes() throws Exception {
+        try (URLClassLoader first = compile("first", Map.of("Signal", SIGNAL, "BaseHandler", BASE_HANDLER));
+             URLClassLoader second = compile("second", Map.of("Signal", SIGNAL, "DerivedHandler", DERIVED_HANDLER,
+                     "BaseHandler", BASE_HANDLER))) {
+            String firstName = indexName(first);
+            String secondName = indexName(second);
+
+            assertTrue(firstName.startsWith("com.example.signals.EventBusSubscriberIndex_"), firstName);
+            assertTrue(secondName.startsWith("com.example.signals.EventBusSubscriberIndex_"), secondName);
+            assertNotEquals(firstName, secondName);
+        }
+    }
+
+    @Test
+    public void testIndexNameOption() throws Exception {
+        try (URLClassLoader loader = compile("named", Map.of("Signal", SIGNAL, "BaseHandler", BASE_HANDLER),
+                "-Aeventbus.index=com.example.SignalIndex")) {
+            assertEquals("com.example.SignalIndex", indexName(loader));
+            assertNotNull(loadIndex(loader).getSubscriberInfo(loader.loadClass("com.example.signals.BaseHandler")));
+        }
+    }
+
+    /**
+     * Compiles the fixture sources with the index processor and returns a loader for the output.
+     */
+    private URLClassLoader compile(String module, Map<String, String> sources, String... options) throws Exception {
+        Path sourceDir = Files.createDirectories(temp.resolve(module).resolve("src/com/example/signals"));
+        Path output = Files.createDirectories(temp.resolve(module).resolve("classes"));
+        List<String> arguments = new ArrayList<>(List.of("-d", output.toString(),
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", SubscriberIndexProcessor.class.getName()));
+        arguments.addAll(List.of(options));
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = sourceDir.resolve(source.getKey() + ".java");
+            Files.writeString(file, source.getValue());
+            arguments.add(file.toString());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(String[]::new)));
+        return new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static String indexName(URLClassLoader loader) throws Exception {
+        URL serviceFile = loader.findResource("META-INF/services/" + SubscriberInfoIndex.class.getName());
+        assertNotNull(serviceFile);
+        try (InputStream in = serviceFile.openStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        }
+    }
+
+    private static SubscriberInfoIndex loadIndex(URLClassLoader loader) throws Exception {
+        return (SubscriberInfoIndex) loader.loadClass(indexName(loader)).getConstructor().newInstance();
+    }
+}
@@ -0,0 +1,128 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestSubscriberRegistry {
+
+    @Test
+    public void testDispatchTableOrderedByPriority() {
+        SubscriberRegistry registry = new SubscriberRegistry(new EventBus());
+        registry.register(new PriorityHandler());
+
+        Subscriber[] subscribers = registry.getSubscribers(new ChildEvent("child"));
+        assertEquals(3, subscribers.length);
+        assertArrayEquals(new int[]{30, 20, 10},
+                new int[]{subscribers[0].method.priority(), subscribers[1].method.priority(), subscribers[2].method.priority()});
+        assertSame(subscribers, registry.getSubscribers(new ChildEvent("another child")));
+        assertEquals(1, registry.getSubscribers(new BaseEvent("base")).length);
+    }
+
+    @Test
+    public void testDispatchTableRebuiltOnUnregister() {
+        EventBus bus = new EventBus();
+        PriorityHandler handler = new PriorityHandler();
+        bus.register(handler);
+        bus.post(new ChildEvent("first"));
+        bus.unregister(handler);
+        bus.post(new ChildEvent("second"));
+
+        assertEquals(List.of("base:first", "child:first", "child2:first"), handler.received);
+    }
+
+    @Test
+    public void testInterfaceSubscribersReceiveImplementingEvents() {
+        EventBus bus = new EventBus();
+        InterfaceHandler handler = new InterfaceHandler();
+        bus.register(handler);
+        bus.post(new AuditedEvent("audited"));
+        bus.post(new ChildEvent("plain"));
+
+        assertEquals(List.of("auditable:audited", "marker:audited"), handler.received);
+        assertEquals(Set.of(AuditedEvent.class, ChildEvent.class, BaseEvent.class, Object.class, Auditable.class, Marker.class),
+                Set.copyOf(SubscriberRegistry.flattenHierarchy(AuditedEvent.class)));
+    }
+
+    @Test
+    public void testExactTypeWithoutEventInheritance() {
+        EventBus bus = EventBus.builder().eventInheritance(false).build();
+        PriorityHandler handler = new PriorityHandler();
+        bus.register(handler);
+        bus.post(new ChildEvent("child"));
+        bus.post(new AuditedEvent("audited"));
+
+        assertEquals(List.of("child:child", "child2:child"), handler.received);
+    }
+
+    public interface Marker {
+    }
+
+    public interface Auditable extends Marker {
+    }
+
+    public static class BaseEvent {
+        private final String name;
+
+        public BaseEvent(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static class ChildEvent extends BaseEvent {
+        public ChildEvent(String name) {
+            super(name);
+        }
+    }
+
+    public static class AuditedEvent extends ChildEvent implements Auditable {
+        public AuditedEvent(String name) {
+            super(name);
+        }
+    }
+
+    public static class InterfaceHandler {
+        final List<String> received = new ArrayList<>();
+
+        @Subscribe(priority = 10)
+        public void onAuditable(Auditable event) {
+            received.add("auditable:" + event);
+        }
+
+        @Subscribe
+        public void onMarker(Marker event) {
+            received.add("marker:" + event);
+        }
+    }
+
+    public static class PriorityHandler {
+        final List<String> received = new ArrayList<>();
+
+        @Subscribe(priority = 10)
+        public void onChild2(ChildEvent event) {
+            received.add("child2:" + event);
+        }
+
+        @Subscribe(priority = 20)
+        public void onChild(ChildEvent event) {
+            received.add("child:" + event);
+        }
+
+        @Subscribe(priority = 30)
+        public void onBase(BaseEvent event) {
+            received.add("base:" + event);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestTieredInvokers {
+
+    @Test
+    public void testInvokerIsGeneratedAfterThreshold() throws NoSuchMethodException {
+        EventBus bus = EventBus.builder().compileInvokersAfter(3).build();
+        Handler handler = new Handler();
+        bus.register(handler);
+        Method method = Handler.class.getMethod("onTick", Tick.class);
+
+        bus.post(new Tick(1));
+        bus.post(new Tick(2));
+        assertFalse(SubscriberInvokers.get(method, 3).getClass().isHidden());
+
+        bus.post(new Tick(3));
+        bus.post(new Tick(4));
+        assertEquals(List.of(new Tick(1), new Tick(2), new Tick(3), new Tick(4)), handler.ticks);
+        // subscribers registered from now on get the generated invoker directly
+        assertTrue(SubscriberInvokers.get(method, 3).getClass().isHidden());
+    }
+
+    @Test
+    public void testMethodHandleRethrowsSubscriberExceptions() {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        EventBus bus = EventBus.builder()
+                .compileInvokersAfter(1_000)
+                .exceptionHandler((e, context) -> failures.add(e))
+                .build();
+        bus.register(new FailingHandler());
+
+        bus.post(new Tick(1));
+
+        assertEquals(1, failures.size());
+        assertInstanceOf(IOException.class, failures.get(0));
+    }
+
+    public record Tick(int id) {
+    }
+
+    public static class Handler {
+        final List<Tick> ticks = new CopyOnWriteArrayList<>();
+
+        @Subscribe
+        public void onTick(Tick tick) {
+            ticks.add(tick);
+        }
+    }
+
+    public static class FailingHandler {
+        @Subscribe
+        public void onTick(Tick tick) throws IOException {
+            throw new IOException("tick " + tick.id());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestTopics {
+
+    @Test
+    public void testWildcardMatching() {
+        EventBus bus = new EventBus();
+        TopicHandler handler = new TopicHandler();
+        bus.register(handler);
+
+        bus.post("order.eu.created", new OrderEvent(1));
+        assertEquals(List.of("exact", "single", "multi", "all"), handler.take());
+
+        bus.post("order.created", new OrderEvent(2));
+        assertEquals(List.of("multi", "all"), handler.take());
+
+        bus.post("order.eu.de.shipped", new OrderEvent(3));
+        assertEquals(List.of("multi", "middle", "all"), handler.take());
+
+        bus.post("order.shipped", new OrderEvent(4));
+        // '#' also matches zero segments
+        assertEquals(List.of("multi", "middle", "all"), handler.take());
+
+        bus.post("invoice.eu.created", new OrderEvent(5));
+        assertEquals(List.of("all"), handler.take());
+    }
+
+    @Test
+    public void testPayloadTypeAndClassRoutingAreSeparate() {
+        EventBus bus = new EventBus();
+        TopicHandler handler = new TopicHandler();
+        bus.register(handler);
+
+        // only the String subscriber of the matching topic accepts a String payload
+        bus.post("order.eu.created", "text");
+        assertEquals(List.of("text"), handler.take());
+
+        // topic subscribers are not reached by class based posts
+        bus.post(new OrderEvent(6));
+        assertEquals(List.of(), handler.take());
+    }
+
+    @Test
+    public void testUnregisterAndReregisterInvalidateCache() {
+        EventBus bus = new EventBus();
+        TopicHandler handler = new TopicHandler();
+        bus.register(handler);
+        bus.post("order.eu.created", new OrderEvent(1));
+        handler.take();
+
+        bus.unregister(handler);
+        bus.post("order.eu.created", new OrderEvent(2));
+        assertEquals(List.of(), handler.take());
+
+        LateTopicHandler lateHandler = new LateTopicHandler();
+        bus.register(lateHandler);
+        bus.post("order.eu.created", new OrderEvent(3));
+        assertEquals(List.of(), handler.take());
+        assertEquals(1, lateHandler.received);
+    }
+
+    @Test
+    public void testMalformedTopics() {
+        EventBus bus = new EventBus();
+        assertThrows(EventBusException.class, () -> bus.register(new MalformedTopicHandler()));
+        assertThrows(EventBusException.class, () -> bus.post("order..created", new OrderEvent(1)));
+    }
+
+    public record OrderEvent(int id) {
+    }
+
+    public static class TopicHandler {
+        final List<String> received = new ArrayList<>();
+
+        List<String> take() {
+            List<String> taken = new ArrayList<>(received);
+            received.clear();
+            return taken;
+        }
+
+        @Subscribe(topic = "order.eu.created", priority = 4)
+        public void exact(OrderEvent event) {
+            received.add("exact");
+        }
+
+        @Subscribe(topic = "order.*.created", priority = 3)
+        public void single(OrderEvent event) {
+            received.add("single");
+        }
+
+        @Subscribe(topic = "order.#", priority = 2)
+        public void multi(OrderEvent event) {
+            received.add("multi");
+        }
+
+        @Subscribe(topic = "order.#.shipped", priority = 1)
+        public void middle(OrderEvent event) {
+            received.add("middle");
+        }
+
+        @Subscribe(topic = "#")
+        public void all(OrderEvent event) {
+            received.add("all");
+        }
+
+        @Subscribe(topic = "order.*.created")
+        public void text(String event) {
+            received.add("text");
+        }
+    }
+
+    public static class LateTopicHandler {
+        int received;
+
+        @Subscribe(topic = "order.*.*")
+        public void late(OrderEvent event) {
+            received++;
+        }
+    }
+
+    public static class MalformedTopicHandler {
+        @Subscribe(topic = "order.eu*.created")
+        public void malformed(OrderEvent event) {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class TestVirtualThreadMode {
+
+    @Test
+    public void testDeliveriesRespectConcurrencyLimit() throws InterruptedException {
+        assumeTrue(VirtualThreads.isSupported());
+        EventBus bus = new EventBus();
+        BlockingHandler handler = new BlockingHandler(200);
+        bus.register(handler);
+
+        for (int i = 0; i < 200; i++) {
+            bus.post(new Query(i));
+        }
+
+        assertTrue(handler.latch.await(30, TimeUnit.SECONDS));
+        assertTrue(handler.maxInFlight.get() <= 8, "max in flight " + handler.maxInFlight.get());
+        assertTrue(handler.threadName.startsWith("EventBus-default-virtual-"), handler.threadName);
+    }
+
+    @Test
+    public void testRegistrationFailsWithoutVirtualThreads() {
+        assumeFalse(VirtualThreads.isSupported());
+        assertThrows(EventBusException.class, () -> new EventBus().register(new BlockingHandler(1)));
+    }
+
+    @Test
+    public void testMaxConcurrencyRequiresVirtualThreadMode() {
+        SubscriberMethodFinder finder = new SubscriberMethodFinder();
+        assertThrows(EventBusException.class, () -> finder.findSubscriberMethods(AsyncLimitedHandler.class));
+        assertEquals(1, finder.findSubscriberMethods(BlockingHandler.class).size());
+    }
+
+    public record Query(int id) {
+    }
+
+    public static class BlockingHandler {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final CountDownLatch latch;
+        volatile String threadName = "";
+
+        public BlockingHandler(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.VIRTUAL, maxConcurrency = 8)
+        public void onQuery(Query query) throws InterruptedException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            threadName = Thread.currentThread().getName();
+            // simulates a blocking JDBC call
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            latch.countDown();
+        }
+    }
+
+    public static class AsyncLimitedHandler {
+        @Subscribe(threadMode = ThreadMode.ASYNC, maxConcurrency = 8)
+        public void onQuery(Query query) {
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V17;
+
+/**
+ * Compares generating subscriber invokers on registration with generating them after a number of calls, for many
+ * listener classes of which only a few receive events. Reports registration time, classes loaded and metaspace growth
+ * of both strategies:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *          com.think.event.TieredInvocationBenchmark
+ * </pre>
+ */
+public class TieredInvocationBenchmark {
+    private static final int LISTENER_CLASSES = 2_000;
+    private static final int HOT_CLASSES = 20;
+    private static final int HOT_EVENTS = 10_000;
+    private static final int COMPILE_THRESHOLD = 1_000;
+
+    public static void main(String[] args) throws ReflectiveOperationException {
+        // warms up registration and posting with both strategies
+        run(null, 0);
+        run(null, COMPILE_THRESHOLD);
+        run("on registration", 0);
+        run("after " + COMPILE_THRESHOLD + " calls", COMPILE_THRESHOLD);
+        System.exit(0);
+    }
+
+    private static void run(String strategy, int compileThreshold) throws ReflectiveOperationException {
+        // fresh listener classes per strategy, defined before measuring
+        List<Object> listeners = defineListeners();
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        EventBus bus = EventBus.builder().compileInvokersAfter(compileThreshold).build();
+
+        long classes = classLoading.getTotalLoadedClassCount();
+        long metaspace = metaspaceUsed();
+        long start = System.nanoTime();
+        for (Object listener : listeners) {
+            bus.register(listener);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (strategy != null) {
+            System.out.printf("%-22s register %4d classes %7.1f ms, %5d classes loaded, metaspace +%6d KB%n",
+                    strategy, listeners.size(), elapsed / 1_000_000.0,
+                    classLoading.getTotalLoadedClassCount() - classes, (metaspaceUsed() - metaspace) / 1024);
+        }
+
+        start = System.nanoTime();
+        for (int i = 0; i < HOT_EVENTS; i++) {
+            bus.post(new Hot(i));
+        }
+        elapsed = System.nanoTime() - start;
+        if (strategy != null) {
+            System.out.printf("%-22s post %d events %7.1f ms, %5d classes loaded, metaspace +%6d KB in total%n",
+                    strategy, HOT_EVENTS, elapsed / 1_000_000.0,
+                    classLoading.getTotalLoadedClassCount() - classes, (metaspaceUsed() - metaspace) / 1024);
+        }
+        bus.shutdown();
+    }
+
+    private static List<Object> defineListeners() throws ReflectiveOperationException {
+        SubscriberClassLoader loader = new SubscriberClassLoader(TieredInvocationBenchmark.class.getClassLoader());
+        List<Object> listeners = new ArrayList<>(LISTENER_CLASSES);
+        for (int i = 0; i < LISTENER_CLASSES; i++) {
+            Class<?> eventType = i < HOT_CLASSES ? Hot.class : Cold.class;
+            String name = "com/think/event/bench/Listener" + i;
+            Class<?> listenerClass = loader.defineClass(name.replace('/', '.'), generateListener(name, eventType));
+            listeners.add(listenerClass.getDeclaredConstructor().newInstance());
+        }
+        return listeners;
+    }
+
+    /**
+     * Generates a listener with a single empty {@code @Subscribe} method for {@code eventType}.
+     */
+    private static byte[] generateListener(String className, Class<?> eventType) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V17, ACC_PUBLIC | ACC_SUPER, className, null, "java/lang/Object", null);
+
+        MethodVisitor init = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(ALOAD, 0);
+        init.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(RETURN);
+        init.visitMaxs(1, 1);
+        init.visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "onEvent",
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(eventType)), null, null);
+        AnnotationVisitor subscribe = mv.visitAnnotation(Type.getDescriptor(Subscribe.class), true);
+        subscribe.visitEnd();
+        mv.visitCode();
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 2);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static long metaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().equals("Metaspace")) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return 0;
+    }
+
+    public record Hot(long id) {
+    }
+
+    public record Cold(long id) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.think.event;
+
+import com.think.event.annotation.Subscribe;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ThreadMode#ASYNC} with {@link ThreadMode#VIRTUAL} for subscribers that block, run with Java 21:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *          com.think.event.VirtualThreadBenchmark
+ * </pre>
+ */
+public class VirtualThreadBenchmark {
+    private static final int EVENTS = 2_000;
+    private static final long BLOCKING_MILLIS = 10;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("round %d: ASYNC   %6d ms%n", round, run(new AsyncHandler(EVENTS)));
+            System.out.printf("round %d: VIRTUAL %6d ms%n", round, run(new VirtualHandler(EVENTS)));
+        }
+        System.exit(0);
+    }
+
+    private static long run(BlockingHandler handler) throws InterruptedException {
+        EventBus bus = new EventBus();
+        bus.register(handler);
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            bus.post(new Request(i));
+        }
+        if (!handler.latch.await(10, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("timed out");
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        bus.shutdown();
+        return elapsed;
+    }
+
+    public record Request(int id) {
+    }
+
+    public abstract static class BlockingHandler {
+        final CountDownLatch latch;
+
+        BlockingHandler(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        void block() {
+            try {
+                // stands in for a JDBC or HTTP call
+                Thread.sleep(BLOCKING_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            latch.countDown();
+        }
+    }
+
+    public static class AsyncHandler extends BlockingHandler {
+        public AsyncHandler(int expected) {
+            super(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.ASYNC)
+        public void onRequest(Request request) {
+            block();
+        }
+    }
+
+    public static class VirtualHandler extends BlockingHandler {
+        public VirtualHandler(int expected) {
+            super(expected);
+        }
+
+        @Subscribe(threadMode = ThreadMode.VIRTUAL, maxConcurrency = 200)
+        public void onRequest(Request request) {
+            block();
+        }
+    }
+}